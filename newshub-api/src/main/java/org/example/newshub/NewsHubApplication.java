@@ -2,8 +2,10 @@ package org.example.newshub;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class NewsHubApplication {
     public static void main(String[] args) {
         SpringApplication.run(NewsHubApplication.class, args);
@@ -0,0 +1,13 @@
+package org.example.newshub.db;
+
+import java.util.List;
+
+/** Set-based writes for {@link NewsJpaRepository}, done in plain JDBC. */
+public interface NewsBulkWrites {
+
+    /**
+     * Inserts the rows whose dedup key is not stored yet and returns how many were inserted.
+     * Ids are left to the database; the entities are not attached to the persistence context.
+     */
+    int insertIgnoringDuplicates(List<NewsEntity> rows);
+}
@@ -0,0 +1,163 @@
+package org.example.newshub.db;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.nio.ByteBuffer;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * On PostgreSQL a chunk of rows is one {@code INSERT ... ON CONFLICT (dedup_key) DO NOTHING},
+ * which stays correct when consumers race on {@code idx_news_dedup}. Elsewhere (H2 in tests)
+ * one {@code IN} query finds the stored keys and the rest go in as a single JDBC batch; there
+ * a racing insert fails the transaction, which the Kafka listener retries.
+ */
+public class NewsBulkWritesImpl implements NewsBulkWrites {
+
+    private static final String COLUMNS = "id, title, description, link, category, guid, dedup_key, pub_date_raw, "
+            + "published_at, added_at, source_id, source_name, source_url, seen";
+    private static final int CHUNK = 1000;
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate named;
+    private volatile Target target;
+
+    public NewsBulkWritesImpl(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+        this.named = new NamedParameterJdbcTemplate(jdbc);
+    }
+
+    @Override
+    public int insertIgnoringDuplicates(List<NewsEntity> rows) {
+        if (rows == null || rows.isEmpty()) return 0;
+        Target t = target();
+        assignIds(rows, t);
+        int inserted = 0;
+        for (int from = 0; from < rows.size(); from += CHUNK) {
+            List<NewsEntity> chunk = rows.subList(from, Math.min(rows.size(), from + CHUNK));
+            inserted += t.postgres() ? insertOnConflict(chunk, t) : insertMissing(chunk, t);
+        }
+        return inserted;
+    }
+
+    private int insertOnConflict(List<NewsEntity> chunk, Target t) {
+        StringBuilder sql = new StringBuilder("insert into news (").append(COLUMNS).append(") values ");
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) sql.append(',');
+            sql.append(t.placeholders());
+        }
+        sql.append(" on conflict (dedup_key) do nothing");
+
+        return jdbc.update(sql.toString(), ps -> {
+            int p = 1;
+            for (NewsEntity e : chunk) p = bind(ps, p, e);
+        });
+    }
+
+    private int insertMissing(List<NewsEntity> chunk, Target t) {
+        Set<ByteBuffer> stored = new HashSet<>();
+        named.queryForList(
+                "select dedup_key from news where dedup_key in (:keys)",
+                Map.of("keys", chunk.stream().map(NewsEntity::getDedupKey).toList()),
+                byte[].class).forEach(k -> stored.add(ByteBuffer.wrap(k)));
+        // stored now also collects the keys of this chunk, dropping repeats within it
+        List<NewsEntity> fresh = chunk.stream()
+                .filter(e -> stored.add(ByteBuffer.wrap(e.getDedupKey())))
+                .toList();
+        if (fresh.isEmpty()) return 0;
+
+        jdbc.batchUpdate("insert into news (" + COLUMNS + ") values " + t.placeholders(), fresh, fresh.size(),
+                (ps, e) -> bind(ps, 1, e));
+        return fresh.size();
+    }
+
+    /**
+     * Ids from {@code news_seq} the way Hibernate's pooled optimizer takes them: each value is the
+     * top of a block of {@link NewsEntity#ID_ALLOCATION} ids, so a chunk costs one sequence call
+     * per 50 rows and never collides with ids Hibernate hands out.
+     */
+    private void assignIds(List<NewsEntity> rows, Target t) {
+        int i = 0;
+        while (i < rows.size()) {
+            // a fresh sequence's first value is a block of one, hence the loop
+            int blocks = (rows.size() - i + NewsEntity.ID_ALLOCATION - 1) / NewsEntity.ID_ALLOCATION;
+            for (long top : nextTops(blocks, t)) {
+                for (long id = Math.max(1, top - NewsEntity.ID_ALLOCATION + 1); id <= top && i < rows.size(); id++) {
+                    rows.get(i++).setId(id);
+                }
+            }
+        }
+    }
+
+    private List<Long> nextTops(int blocks, Target t) {
+        if (t.postgres()) {
+            return jdbc.queryForList("select nextval('news_seq') from generate_series(1, ?)", Long.class, blocks);
+        }
+        List<Long> tops = new ArrayList<>(blocks);
+        for (int i = 0; i < blocks; i++) tops.add(jdbc.queryForObject("select next value for news_seq", Long.class));
+        return tops;
+    }
+
+    private static int bind(PreparedStatement ps, int p, NewsEntity e) throws SQLException {
+        ps.setLong(p++, e.getId());
+        ps.setString(p++, e.getTitle());
+        ps.setString(p++, e.getDescription());
+        ps.setString(p++, e.getLink());
+        ps.setString(p++, e.getCategory());
+        ps.setString(p++, e.getGuid());
+        ps.setBytes(p++, e.getDedupKey());
+        ps.setString(p++, e.getPubDateRaw());
+        setInstant(ps, p++, e.getPublishedAt());
+        setInstant(ps, p++, e.getAddedAt());
+        ps.setString(p++, e.getSourceId());
+        ps.setString(p++, e.getSourceName());
+        ps.setString(p++, e.getSourceUrl());
+        ps.setBoolean(p++, e.isSeen());
+        return p;
+    }
+
+    private static void setInstant(PreparedStatement ps, int p, Instant value) throws SQLException {
+        if (value == null) {
+            ps.setNull(p, Types.TIMESTAMP_WITH_TIMEZONE);
+        } else {
+            ps.setObject(p, value.atOffset(ZoneOffset.UTC));
+        }
+    }
+
+    private Target target() {
+        Target t = target;
+        if (t == null) {
+            t = jdbc.execute((ConnectionCallback<Target>) con -> Target.of(con.getMetaData()));
+            target = t;
+        }
+        return t;
+    }
+
+    /**
+     * What the insert looks like on this database. Hibernate maps the {@code @Lob} description
+     * to an {@code oid} large object on PostgreSQL, so there the text is turned into one in SQL.
+     */
+    private record Target(boolean postgres, String placeholders) {
+
+        static Target of(DatabaseMetaData meta) throws SQLException {
+            boolean postgres = meta.getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres");
+            String description = "?";
+            if (postgres) {
+                try (ResultSet rs = meta.getColumns(null, null, "news", "description")) {
+                    if (rs.next() && "oid".equalsIgnoreCase(rs.getString("TYPE_NAME"))) {
+                        description = "lo_from_bytea(0, convert_to(?, 'UTF8'))";
+                    }
+                }
+            }
+            return new Target(postgres, "(?, ?, " + description + ", ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+        }
+    }
+}
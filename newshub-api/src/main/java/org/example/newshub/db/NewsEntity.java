@@ -18,8 +18,12 @@ import java.time.Instant;
 )
 public class NewsEntity {
 
+    /** Ids one {@code news_seq} call hands out; the bulk insert allocates them the same way. */
+    public static final int ID_ALLOCATION = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "news_seq")
+    @SequenceGenerator(name = "news_seq", sequenceName = "news_seq", allocationSize = ID_ALLOCATION)
     private Long id;
 
     @Column(length = 512)
@@ -37,8 +41,9 @@ public class NewsEntity {
     @Column(length = 2048)
     private String guid;
 
-    @Column(length = 64, nullable = false, unique = true)
-    private String dedupKey;
+    /** First 128 bits of the item's SHA-256 {@code ItemKey}. */
+    @Column(length = 16, nullable = false, unique = true)
+    private byte[] dedupKey;
 
     @Column(length = 256)
     private String pubDateRaw;
@@ -98,11 +103,11 @@ public class NewsEntity {
         this.guid = guid;
     }
 
-    public String getDedupKey() {
+    public byte[] getDedupKey() {
         return dedupKey;
     }
 
-    public void setDedupKey(String dedupKey) {
+    public void setDedupKey(byte[] dedupKey) {
         this.dedupKey = dedupKey;
     }
 
@@ -9,13 +9,14 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.Collection;
 import java.util.List;
 
 public interface NewsJpaRepository extends JpaRepository<NewsEntity, Long>,
-        JpaSpecificationExecutor<NewsEntity> {
+        JpaSpecificationExecutor<NewsEntity>, NewsBulkWrites {
 
-    boolean existsByDedupKey(String dedupKey);
+    boolean existsByDedupKey(byte[] dedupKey);
 
     @Query("select count(n) from NewsEntity n where n.seen = false")
     long countUnseen();
@@ -39,8 +40,39 @@ public interface NewsJpaRepository extends JpaRepository<NewsEntity, Long>,
     @Query("update NewsEntity n set n.seen = false")
     int markAllUnseen();
 
-    @Query("select n.id from NewsEntity n order by n.addedAt asc")
-    List<Long> findOldestIds(Pageable pageable);
+    /** Position of a row in {@code addedAt, id} order, where retention starts deleting. */
+    interface RowMark {
+        Long getId();
+        Instant getAddedAt();
+    }
+
+    @Query("select n.id as id, n.addedAt as addedAt from NewsEntity n order by n.addedAt desc, n.id desc")
+    List<RowMark> findNewestMarks(Pageable pageable);
+
+    @Query("""
+    select n.id as id, n.addedAt as addedAt from NewsEntity n
+    where n.sourceId = :sourceId
+    order by n.addedAt desc, n.id desc
+    """)
+    List<RowMark> findNewestMarksOfSource(@Param("sourceId") String sourceId, Pageable pageable);
+
+    @Query("select n.id from NewsEntity n where n.addedAt < :before")
+    List<Long> findIdsAddedBefore(@Param("before") Instant before, Pageable pageable);
+
+    /** Ids at or behind the mark; {@code sourceId} null for any source. */
+    @Query("""
+    select n.id from NewsEntity n
+    where (:sourceId is null or n.sourceId = :sourceId)
+      and (n.addedAt < :addedAt or (n.addedAt = :addedAt and n.id <= :id))
+    """)
+    List<Long> findIdsUpTo(@Param("sourceId") String sourceId, @Param("addedAt") Instant addedAt,
+                           @Param("id") long id, Pageable pageable);
+
+    @Query("select n.sourceId from NewsEntity n where n.sourceId is not null group by n.sourceId having count(n) > :quota")
+    List<String> findSourcesOver(@Param("quota") long quota);
+
+    @Query("select n.dedupKey from NewsEntity n where n.id in :ids")
+    List<byte[]> findDedupKeys(@Param("ids") Collection<Long> ids);
 
     @Modifying
     @Transactional
@@ -0,0 +1,68 @@
+package org.example.newshub.db;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * What {@code ddl-auto: update} cannot do to a PostgreSQL database created by an older
+ * version, done before any consumer writes. It never changes a column's type, so a
+ * {@code news.dedup_key} of 64 hex characters is converted to its first 16 bytes, exactly the
+ * key as it is now, and stored items keep deduplicating against new ones. And it creates
+ * {@code news_seq} starting at 1 next to ids the old identity column already handed out, so
+ * the sequence is moved past them. Depends on the {@code entityManagerFactory} bean so the
+ * schema update has run first.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class NewsSchemaMigration implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(NewsSchemaMigration.class);
+
+    private final JdbcTemplate jdbc;
+
+    public NewsSchemaMigration(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        boolean postgres = Boolean.TRUE.equals(jdbc.execute((ConnectionCallback<Boolean>) con ->
+                con.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("postgres")));
+        if (!postgres) return;
+        convertDedupKeys();
+        advanceIdSequence();
+    }
+
+    private void convertDedupKeys() {
+        boolean textKeys = Boolean.TRUE.equals(jdbc.execute((ConnectionCallback<Boolean>) con -> {
+            DatabaseMetaData meta = con.getMetaData();
+            try (ResultSet rs = meta.getColumns(null, null, "news", "dedup_key")) {
+                return rs.next() && rs.getString("TYPE_NAME").toLowerCase(Locale.ROOT).contains("char");
+            }
+        }));
+        if (!textKeys) return;
+
+        log.info("Converting news.dedup_key from hex text to 16-byte bytea");
+        jdbc.execute("alter table news alter column dedup_key type bytea using decode(left(dedup_key, 32), 'hex')");
+    }
+
+    // the next block then starts above every stored id; no row when the sequence is already
+    // past them (an empty table, every restart), and it never moves back under other writers
+    private void advanceIdSequence() {
+        List<Long> moved = jdbc.queryForList("""
+                select setval('news_seq', m.max_id + ?)
+                from (select coalesce(max(id), 0) as max_id from news) m, news_seq s
+                where m.max_id >= s.last_value""", Long.class, NewsEntity.ID_ALLOCATION);
+        if (!moved.isEmpty()) log.info("Moved news_seq past the stored ids to {}", moved.get(0));
+    }
+}
@@ -0,0 +1,76 @@
+package org.example.newshub.kafka;
+
+import jakarta.annotation.PreDestroy;
+import org.example.newshub.common.kafka.FeedConfigEvent;
+import org.example.newshub.service.FeedRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Publishes the selected feeds to a compacted topic under a single key, so the topic always
+ * ends with the current list and an ingestor can read it without calling the API. The list is
+ * sent on startup and after every change in {@link FeedRegistry}.
+ */
+@Component
+@ConditionalOnProperty(name = "newshub.kafka.feed-config.enabled", havingValue = "true", matchIfMissing = true)
+public class FeedConfigPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedConfigPublisher.class);
+    static final String KEY = "selected";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final FeedRegistry feedRegistry;
+    private final String topic;
+    // one sender keeps the lists in order, and a broker that is down never blocks a request
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("feed-config-"));
+
+    public FeedConfigPublisher(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            FeedRegistry feedRegistry,
+            @Value("${newshub.kafka.topics.feed-config:newshub.feed-config}") String topic
+    ) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.feedRegistry = feedRegistry;
+        this.topic = topic;
+    }
+
+    @PreDestroy
+    void stop() {
+        sender.shutdown();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void publishCurrent() {
+        publish(feedRegistry.selection());
+    }
+
+    @EventListener
+    public void onSelectionChanged(FeedRegistry.Selection selection) {
+        publish(selection);
+    }
+
+    private void publish(FeedRegistry.Selection selection) {
+        FeedConfigEvent event = new FeedConfigEvent(selection.version(), Instant.now(), selection.selected());
+        // the ingestor falls back to the REST list, so a failed send is only logged
+        sender.execute(() -> {
+            try {
+                kafkaTemplate.send(topic, KEY, event).whenComplete((r, ex) -> {
+                    if (ex != null) log.warn("Could not publish feed config {}: {}", event.version(), ex.toString());
+                });
+            } catch (RuntimeException ex) {
+                log.warn("Could not publish feed config {}: {}", event.version(), ex.toString());
+            }
+        });
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.newshub.kafka;
+
+import org.example.newshub.common.kafka.NewsBinaryDeserializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaConsumerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+
+/** {@code newshub.kafka.codec=binary} swaps the JSON value deserializer for the compact binary codec. */
+@Configuration
+@ConditionalOnProperty(name = "newshub.kafka.codec", havingValue = "binary")
+public class KafkaCodecConfig {
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    DefaultKafkaConsumerFactoryCustomizer binaryValueDeserializer() {
+        return factory -> ((DefaultKafkaConsumerFactory<Object, Object>) factory).setValueDeserializer(new NewsBinaryDeserializer());
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.newshub.kafka;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/** Topics the API creates itself; Spring's {@code KafkaAdmin} creates any that are missing on startup. */
+@Configuration
+public class KafkaTopicsConfig {
+
+    /** One partition, compacted: {@link FeedConfigPublisher} always writes the same key. */
+    @Bean
+    @ConditionalOnProperty(name = "newshub.kafka.feed-config.enabled", havingValue = "true", matchIfMissing = true)
+    NewTopic feedConfigTopic(@Value("${newshub.kafka.topics.feed-config:newshub.feed-config}") String topic) {
+        return TopicBuilder.name(topic).partitions(1).compact().build();
+    }
+}
@@ -1,12 +1,18 @@
 package org.example.newshub.kafka;
 
+import org.example.newshub.common.kafka.FetchCompleteEvent;
 import org.example.newshub.common.kafka.NewsBatchEvent;
+import org.example.newshub.common.kafka.NewsItemPayload;
 import org.example.newshub.service.NewsService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class NewsKafkaConsumer {
 
@@ -19,8 +25,10 @@ public class NewsKafkaConsumer {
     }
 
     @KafkaListener(
+            id = "news",
             topics = "${newshub.kafka.topics.news:newshub.news}",
-            groupId = "${newshub.kafka.consumer-group:newshub-api}"
+            groupId = "${newshub.kafka.consumer-group:newshub-api}",
+            autoStartup = "#{'${newshub.kafka.batch-listener.enabled:true}' != 'true'}"
     )
     public void onBatch(NewsBatchEvent batch) {
         NewsService.IngestResult r = newsService.ingest(batch);
@@ -30,4 +38,87 @@ public class NewsKafkaConsumer {
             log.info("Ingested {} items from {} (fetchId={})", r.added(), batch == null ? "?" : batch.sourceId(), batch == null ? "?" : batch.fetchId());
         }
     }
+
+    /**
+     * Everything one poll returned, stored in one transaction; replaces {@link #onBatch} when enabled.
+     * If that transaction fails, each batch is stored in its own so one bad row cannot hold back the
+     * rest; the first batch that still fails is reported to the container's error handler, which
+     * retries from it (stored batches are deduplicated) and finally skips it.
+     */
+    @KafkaListener(
+            id = "news-batches",
+            topics = "${newshub.kafka.topics.news:newshub.news}",
+            groupId = "${newshub.kafka.consumer-group:newshub-api}",
+            batch = "true",
+            concurrency = "${newshub.kafka.batch-listener.concurrency:1}",
+            properties = "max.poll.records=${newshub.kafka.batch-listener.max-poll-records:100}",
+            autoStartup = "${newshub.kafka.batch-listener.enabled:true}"
+    )
+    public void onBatches(List<NewsBatchEvent> batches) {
+        NewsService.IngestResult r;
+        try {
+            r = newsService.ingestAll(batches);
+        } catch (RuntimeException ex) {
+            log.warn("Storing {} batches together failed, storing them one by one: {}", batches.size(), ex.toString());
+            r = ingestEach(batches);
+        }
+        for (NewsBatchEvent batch : batches) {
+            if (batch != null && !batch.ok()) log.warn("Fetch error from {}: {}", batch.sourceId(), batch.error());
+        }
+        log.info("Ingested {} items from {} batches", r.added(), batches.size());
+    }
+
+    private NewsService.IngestResult ingestEach(List<NewsBatchEvent> batches) {
+        int added = 0;
+        int stored = 0;
+        List<String> errors = new ArrayList<>();
+        int failedAt = -1;
+        RuntimeException failure = null;
+        for (int i = 0; i < batches.size(); i++) {
+            NewsBatchEvent batch = batches.get(i);
+            try {
+                NewsService.IngestResult r = newsService.ingest(batch);
+                added += r.added();
+                stored++;
+                errors.addAll(r.errors());
+            } catch (RuntimeException ex) {
+                log.warn("Could not store batch {} from {}: {}", i, batch == null ? "?" : batch.sourceId(), ex.toString());
+                if (failure == null) {
+                    failure = ex;
+                    failedAt = i;
+                }
+            }
+        }
+        if (failure != null) {
+            log.info("Ingested {} items from the {} of {} batches that could be stored", added, stored, batches.size());
+            throw new BatchListenerFailedException("Could not store batch " + failedAt, failure, failedAt);
+        }
+        return new NewsService.IngestResult(added, errors);
+    }
+
+    @KafkaListener(
+            id = "news-items",
+            topics = "${newshub.kafka.topics.items:newshub.news.items}",
+            groupId = "${newshub.kafka.consumer-group:newshub-api}",
+            concurrency = "${newshub.kafka.items-concurrency:3}",
+            autoStartup = "#{'${newshub.kafka.event-mode:batch}' == 'item'}"
+    )
+    public void onItem(NewsItemPayload item) {
+        newsService.ingest(item);
+    }
+
+    @KafkaListener(
+            id = "news-fetch-complete",
+            topics = "${newshub.kafka.topics.fetch-complete:newshub.news.fetch-complete}",
+            groupId = "${newshub.kafka.consumer-group:newshub-api}",
+            autoStartup = "#{'${newshub.kafka.event-mode:batch}' == 'item'}"
+    )
+    public void onFetchComplete(FetchCompleteEvent event) {
+        newsService.recordFetch(event);
+        if (event != null && !event.ok()) {
+            log.warn("Fetch error from {}: {}", event.sourceId(), event.error());
+        } else if (event != null) {
+            log.info("Fetch of {} complete: {} items (fetchId={})", event.sourceId(), event.items(), event.fetchId());
+        }
+    }
 }
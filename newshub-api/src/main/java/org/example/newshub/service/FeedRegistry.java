@@ -1,11 +1,16 @@
 package org.example.newshub.service;
 
+import org.example.newshub.common.dto.FeedDto;
 import org.example.newshub.db.FeedEntity;
 import org.example.newshub.db.FeedRepository;
 import org.example.newshub.model.Feed;
 import org.example.newshub.model.FeedCategory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.*;
 import java.util.function.Function;
@@ -15,6 +20,7 @@ import java.util.stream.Collectors;
 public class FeedRegistry {
 
     private final FeedRepository repo;
+    private final ApplicationEventPublisher events;
 
     private final Map<String, Feed> feedsById = new LinkedHashMap<>();
     private final List<String> feedOrder = new ArrayList<>();
@@ -22,8 +28,9 @@ public class FeedRegistry {
 
     private static final Set<String> DEFAULT_SELECTED = Set.of("lenta", "ria", "bbc", "rt");
 
-    public FeedRegistry(FeedRepository repo) {
+    public FeedRegistry(FeedRepository repo, ApplicationEventPublisher events) {
         this.repo = repo;
+        this.events = events;
 
         initDefaultsInMemory();
         ensureDefaultsInDb();
@@ -43,6 +50,14 @@ public class FeedRegistry {
                 .toList();
     }
 
+    /** The selected feeds as the ingestor sees them, with their version. */
+    public synchronized Selection selection() {
+        List<FeedDto> dtos = selectedFeedsInOrder().stream()
+                .map(f -> new FeedDto(f.id(), f.name(), f.url()))
+                .toList();
+        return new Selection(version(dtos), dtos);
+    }
+
     public synchronized Set<String> selectedIds() {
         return new LinkedHashSet<>(selected);
     }
@@ -67,6 +82,7 @@ public class FeedRegistry {
         }
 
         if (changed) repo.saveAll(all);
+        publishSelection();
     }
 
     public synchronized void addCustom(String name, String url) {
@@ -83,8 +99,29 @@ public class FeedRegistry {
 
         addFeedInternal(new Feed(id, name, url, FeedCategory.CUSTOM));
         selected.add(id);
+        publishSelection();
+    }
+
+    private void publishSelection() {
+        events.publishEvent(selection());
     }
 
+    /** A digest of the list: equal lists have equal versions, across restarts and replicas too. */
+    static String version(List<FeedDto> feeds) {
+        try {
+            MessageDigest md = MessageDigest.getInstance("SHA-256");
+            for (FeedDto f : feeds) {
+                md.update((f.id() + '\u0000' + f.name() + '\u0000' + f.url() + '\n').getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(md.digest(), 0, 12);
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /** The selected feeds; also published as an application event after every change. */
+    public record Selection(String version, List<FeedDto> selected) {}
+
 
     private void loadFromDb() {
         selected.clear();
@@ -0,0 +1,112 @@
+package org.example.newshub.service;
+
+import org.example.newshub.db.NewsJpaRepository;
+import org.example.newshub.db.NewsJpaRepository.RowMark;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Keeps the {@code news} table within its limits off the write path: at most {@code max-items}
+ * rows, none older than {@code max-age-hours}, and at most {@code per-source-max} per source
+ * (0 turns a limit off). The newest rows by {@code addedAt} are kept. Each pass finds where
+ * deleting starts through {@code idx_news_added} and deletes in chunks of {@code chunk} rows,
+ * each its own short transaction, so ingest never waits on a large delete. Deleted keys leave
+ * {@link RecentDedupKeys} too, which would otherwise skip those items as still stored.
+ */
+@Component
+public class NewsRetention {
+
+    private static final Logger log = LoggerFactory.getLogger(NewsRetention.class);
+
+    private final NewsJpaRepository repo;
+    private final RecentDedupKeys recentKeys;
+    private final int maxItems;
+    private final Duration maxAge;
+    private final int perSourceMax;
+    private final int chunk;
+    private final Clock clock;
+
+    @Autowired
+    public NewsRetention(
+            NewsJpaRepository repo,
+            RecentDedupKeys recentKeys,
+            @Value("${newshub.retention.max-items:500}") int maxItems,
+            @Value("${newshub.retention.max-age-hours:0}") long maxAgeHours,
+            @Value("${newshub.retention.per-source-max:0}") int perSourceMax,
+            @Value("${newshub.retention.chunk:1000}") int chunk
+    ) {
+        this(repo, recentKeys, maxItems, maxAgeHours, perSourceMax, chunk, Clock.systemUTC());
+    }
+
+    NewsRetention(NewsJpaRepository repo, RecentDedupKeys recentKeys, int maxItems, long maxAgeHours, int perSourceMax,
+                  int chunk, Clock clock) {
+        this.repo = repo;
+        this.recentKeys = recentKeys;
+        this.maxItems = Math.max(0, maxItems);
+        this.maxAge = Duration.ofHours(Math.max(0, maxAgeHours));
+        this.perSourceMax = Math.max(0, perSourceMax);
+        this.chunk = Math.max(1, chunk);
+        this.clock = clock;
+    }
+
+    @Scheduled(initialDelayString = "${newshub.retention.interval-seconds:60}000",
+            fixedDelayString = "${newshub.retention.interval-seconds:60}000")
+    public void scheduled() {
+        try {
+            int deleted = enforce();
+            if (deleted > 0) log.info("Retention deleted {} news items", deleted);
+        } catch (RuntimeException ex) {
+            log.warn("Retention pass failed: {}", ex.toString());
+        }
+    }
+
+    /** One pass over all limits; returns the rows deleted. */
+    public int enforce() {
+        int deleted = 0;
+        if (!maxAge.isZero()) {
+            Instant before = clock.instant().minus(maxAge);
+            deleted += deleteChunked(() -> repo.findIdsAddedBefore(before, PageRequest.of(0, chunk)));
+        }
+        if (perSourceMax > 0) {
+            for (String sourceId : repo.findSourcesOver(perSourceMax)) {
+                deleted += deleteBehind(sourceId, first(repo.findNewestMarksOfSource(sourceId, PageRequest.of(perSourceMax, 1))));
+            }
+        }
+        if (maxItems > 0) {
+            deleted += deleteBehind(null, first(repo.findNewestMarks(PageRequest.of(maxItems, 1))));
+        }
+        return deleted;
+    }
+
+    // the mark is the newest row over the limit: it and everything older goes
+    private int deleteBehind(String sourceId, RowMark mark) {
+        if (mark == null || mark.getAddedAt() == null) return 0;
+        return deleteChunked(() -> repo.findIdsUpTo(sourceId, mark.getAddedAt(), mark.getId(), PageRequest.of(0, chunk)));
+    }
+
+    private int deleteChunked(Supplier<List<Long>> nextIds) {
+        int deleted = 0;
+        for (List<Long> ids = nextIds.get(); !ids.isEmpty(); ids = nextIds.get()) {
+            List<byte[]> keys = repo.findDedupKeys(ids);
+            deleted += repo.deleteByIds(ids);
+            recentKeys.remove(keys);
+            if (ids.size() < chunk) break;
+        }
+        return deleted;
+    }
+
+    private static RowMark first(List<RowMark> marks) {
+        return marks.isEmpty() ? null : marks.get(0);
+    }
+}
@@ -1,5 +1,6 @@
 package org.example.newshub.service;
 
+import org.example.newshub.common.kafka.FetchCompleteEvent;
 import org.example.newshub.common.kafka.NewsBatchEvent;
 import org.example.newshub.common.kafka.NewsItemPayload;
 import org.example.newshub.db.NewsEntity;
@@ -10,6 +11,8 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.Instant;
 import java.util.*;
@@ -20,23 +23,26 @@ import java.util.stream.Collectors;
 @Service
 public class NewsService {
 
-    private static final int MAX_NEWS = 500;
     private static final int MAX_ERRORS = 25;
+    private static final int SEEN_CHUNK = 1000;
 
     private final FeedRegistry feeds;
     private final NewsJpaRepository repo;
     private final RefreshClient refreshClient;
+    private final RecentDedupKeys recentKeys;
 
     private volatile Instant lastFetchTime;
-    private final Deque<String> lastErrors = new ConcurrentLinkedDeque<>();
+    private final Deque<FetchError> lastErrors = new ConcurrentLinkedDeque<>();
 
     private final UserKeywordRepository keywordRepo;
 
-    public NewsService(FeedRegistry feeds, NewsJpaRepository repo, RefreshClient refreshClient, UserKeywordRepository keywordRepo) {
+    public NewsService(FeedRegistry feeds, NewsJpaRepository repo, RefreshClient refreshClient, UserKeywordRepository keywordRepo,
+                       RecentDedupKeys recentKeys) {
         this.feeds = feeds;
         this.repo = repo;
         this.refreshClient = refreshClient;
         this.keywordRepo = keywordRepo;
+        this.recentKeys = recentKeys;
     }
 
     public TriggerResult triggerRefresh() {
@@ -48,7 +54,7 @@ public class NewsService {
         if (batch == null) return new IngestResult(0, List.of());
 
         if (!batch.ok()) {
-            pushError(batch.sourceName() + " (" + batch.sourceUrl() + "): " + batch.error());
+            pushErrorAfterCommit(batch);
             this.lastFetchTime = batch.fetchedAt();
             return new IngestResult(0, List.of(batch.error()));
         }
@@ -58,27 +64,88 @@ public class NewsService {
         return new IngestResult(added, List.of());
     }
 
-    private void pushError(String msg) {
+    /**
+     * All batches of one Kafka poll in a single transaction: one dedup pass over their items,
+     * one insert, instead of one of each per feed.
+     */
+    @Transactional
+    public IngestResult ingestAll(List<NewsBatchEvent> batches) {
+        if (batches == null || batches.isEmpty()) return new IngestResult(0, List.of());
+
+        List<NewsItemPayload> items = new ArrayList<>();
+        List<String> errors = new ArrayList<>();
+        for (NewsBatchEvent batch : batches) {
+            if (batch == null) continue;
+            if (!batch.ok()) {
+                pushErrorAfterCommit(batch);
+                errors.add(batch.error());
+            } else if (batch.items() != null) {
+                items.addAll(batch.items());
+            }
+            this.lastFetchTime = batch.fetchedAt();
+        }
+
+        return new IngestResult(saveFresh(items), errors);
+    }
+
+    /** One item of a per-item event stream; the fetch's outcome arrives separately. */
+    @Transactional
+    public IngestResult ingest(NewsItemPayload item) {
+        if (item == null) return new IngestResult(0, List.of());
+        return new IngestResult(saveFresh(List.of(item)), List.of());
+    }
+
+    public void recordFetch(FetchCompleteEvent event) {
+        if (event == null) return;
+        if (!event.ok()) pushError(event.fetchId(), event.sourceId(), event.sourceName() + " (" + event.sourceUrl() + "): " + event.error());
+        this.lastFetchTime = event.fetchedAt();
+    }
+
+    /**
+     * Records a batch's fetch error once the transaction storing the batch commits, so a poll
+     * stored again batch by batch after a rollback does not record it twice.
+     */
+    private void pushErrorAfterCommit(NewsBatchEvent batch) {
+        String msg = batch.sourceName() + " (" + batch.sourceUrl() + "): " + batch.error();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pushError(batch.fetchId(), batch.sourceId(), msg);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pushError(batch.fetchId(), batch.sourceId(), msg);
+            }
+        });
+    }
+
+    /** Keeps one entry per fetch of a feed: Kafka delivers a batch again after a failed poll. */
+    private synchronized void pushError(String fetchId, String sourceId, String msg) {
         if (msg == null || msg.isBlank()) return;
-        lastErrors.addFirst(msg);
+        String fetch = fetchId + "|" + sourceId;
+        if (fetchId != null && lastErrors.stream().anyMatch(e -> e.fetch().equals(fetch))) return;
+        lastErrors.addFirst(new FetchError(fetch, msg));
         while (lastErrors.size() > MAX_ERRORS) lastErrors.removeLast();
     }
 
     public List<String> lastErrors() {
-        return List.copyOf(lastErrors);
+        return lastErrors.stream().map(FetchError::message).toList();
     }
 
+    private record FetchError(String fetch, String message) {}
+
     @Transactional
     protected int saveFresh(List<NewsItemPayload> incoming) {
         if (incoming == null || incoming.isEmpty()) return 0;
 
-        Set<String> batchKeys = new HashSet<>();
         List<NewsEntity> toSave = new ArrayList<>();
+        List<byte[]> keys = new ArrayList<>();
 
+        // keys stored a while ago are skipped by the insert itself, not looked up one by one
         for (NewsItemPayload it : incoming) {
-            String key = DedupKey.of(it);
-            if (!batchKeys.add(key)) continue;
-            if (repo.existsByDedupKey(key)) continue;
+            byte[] key = DedupKey.of(it);
+            if (recentKeys.contains(key)) continue;
+            keys.add(key);
 
             NewsEntity e = new NewsEntity();
             e.setTitle(it.title());
@@ -98,20 +165,10 @@ public class NewsService {
             toSave.add(e);
         }
 
-        if (!toSave.isEmpty()) repo.saveAll(toSave);
-        trimToMax();
+        int added = repo.insertIgnoringDuplicates(toSave);
+        recentKeys.addAfterCommit(keys);
 
-        return toSave.size();
-    }
-
-    @Transactional
-    protected void trimToMax() {
-        long total = repo.count();
-        if (total <= MAX_NEWS) return;
-
-        int overflow = (int) Math.min(Integer.MAX_VALUE, total - MAX_NEWS);
-        List<Long> ids = repo.findOldestIds(PageRequest.of(0, overflow));
-        if (!ids.isEmpty()) repo.deleteByIds(ids);
+        return added;
     }
 
     public List<NewsItem> search(String q) {
@@ -207,7 +264,10 @@ public class NewsService {
                 .filter(Objects::nonNull)
                 .distinct()
                 .toList();
-        if (!ids.isEmpty()) repo.markSeen(ids);
+        // bounded IN lists: PostgreSQL takes at most 32767 bind parameters per statement
+        for (int from = 0; from < ids.size(); from += SEEN_CHUNK) {
+            repo.markSeen(ids.subList(from, Math.min(ids.size(), from + SEEN_CHUNK)));
+        }
     }
 
     @Transactional
@@ -223,6 +283,8 @@ public class NewsService {
         } else {
             repo.deleteBySourceIdNotIn(keep);
         }
+        // items of a source selected again should be stored again
+        recentKeys.clear();
     }
 
     private static NewsItem toDto(NewsEntity e) {
@@ -0,0 +1,78 @@
+package org.example.newshub.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded LRU of dedup keys known to be stored, so most repeats of an item are dropped before
+ * they reach the database: feeds resend the same items on every poll. Keys are added only
+ * once the transaction that stored them has committed.
+ */
+@Component
+public class RecentDedupKeys {
+
+    private final int capacity;
+    private final LinkedHashMap<Key, Boolean> keys;
+
+    public RecentDedupKeys(@Value("${newshub.dedup.recent-keys:50000}") int capacity) {
+        this.capacity = Math.max(0, capacity);
+        this.keys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Boolean> eldest) {
+                return size() > RecentDedupKeys.this.capacity;
+            }
+        };
+    }
+
+    public synchronized boolean contains(byte[] key) {
+        return capacity > 0 && keys.get(Key.of(key)) != null;
+    }
+
+    /** Remembers the keys after the current transaction commits, or now outside of one. */
+    public void addAfterCommit(List<byte[]> stored) {
+        if (capacity == 0 || stored.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            add(stored);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(stored);
+            }
+        });
+    }
+
+    /** Forgets everything, e.g. after rows were deleted that may be sent again. */
+    public synchronized void clear() {
+        keys.clear();
+    }
+
+    /** Forgets the keys of deleted rows, so their items are stored again if a feed resends them. */
+    public synchronized void remove(Collection<byte[]> deleted) {
+        for (byte[] k : deleted) keys.remove(Key.of(k));
+    }
+
+    public synchronized int size() {
+        return keys.size();
+    }
+
+    private synchronized void add(List<byte[]> stored) {
+        for (byte[] k : stored) keys.put(Key.of(k), Boolean.TRUE);
+    }
+
+    private record Key(long hi, long lo) {
+        static Key of(byte[] key) {
+            ByteBuffer b = ByteBuffer.wrap(key);
+            return new Key(b.getLong(0), b.getLong(8));
+        }
+    }
+}
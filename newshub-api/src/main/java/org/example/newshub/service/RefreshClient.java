@@ -3,6 +3,7 @@ package org.example.newshub.service;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
 @Service
@@ -29,6 +30,8 @@ public class RefreshClient {
                 return new NewsService.TriggerResult(true, "refresh requested");
             }
             return new NewsService.TriggerResult(false, "ingestor returned " + st);
+        } catch (HttpClientErrorException.TooManyRequests ex) {
+            return new NewsService.TriggerResult(false, "ingestor is busy with other refreshes");
         } catch (Exception ex) {
             return new NewsService.TriggerResult(false, ex.getClass().getSimpleName() + ": " + ex.getMessage());
         }
@@ -5,6 +5,7 @@ import org.example.newshub.model.Feed;
 import org.example.newshub.service.FeedRegistry;
 import org.example.newshub.service.NewsService;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -51,11 +52,12 @@ public class ApiController {
         return new FeedsResponse(feedRegistry.allFeedsInOrder(), feedRegistry.selectedIds());
     }
 
+    /** Carries the selection version as its ETag; {@code If-None-Match} with it gets a 304. */
     @GetMapping("/feeds/selected")
-    public List<FeedDto> selectedFeedsForIngestor() {
-        return feedRegistry.selectedFeedsInOrder().stream()
-                .map(f -> new FeedDto(f.id(), f.name(), f.url()))
-                .toList();
+    public List<FeedDto> selectedFeedsForIngestor(WebRequest request) {
+        FeedRegistry.Selection selection = feedRegistry.selection();
+        if (request.checkNotModified(selection.version())) return null;
+        return selection.selected();
     }
 
     public record FeedsResponse(List<Feed> all, java.util.Set<String> selectedIds) {}
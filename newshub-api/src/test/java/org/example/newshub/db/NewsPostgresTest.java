@@ -0,0 +1,173 @@
+package org.example.newshub.db;
+
+import org.example.newshub.common.kafka.ItemKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The SQL {@link NewsBulkWritesImpl} and {@link NewsSchemaMigration} only send to PostgreSQL,
+ * against a real one: H2 takes the other path. Needs Docker, and is skipped without it.
+ */
+@DataJpaTest
+@Import(NewsSchemaMigration.class)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+// rows are written the way the Kafka listener writes them, outside any test transaction
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NewsPostgresTest {
+
+    @Container
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "update");
+    }
+
+    private static final Instant NOW = Instant.parse("2025-12-18T12:00:00Z");
+
+    @Autowired NewsJpaRepository repo;
+    @Autowired JdbcTemplate jdbc;
+    @Autowired PlatformTransactionManager transactions;
+    @Autowired NewsSchemaMigration migration;
+
+    @AfterEach
+    void tearDown() {
+        jdbc.execute("delete from news");
+    }
+
+    @Test
+    void concurrent_inserts_of_the_same_items_store_each_once() throws Exception {
+        int writers = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        try {
+            List<Future<Integer>> inserted = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                inserted.add(pool.submit(() -> {
+                    List<NewsEntity> rows = IntStream.range(0, 300).mapToObj(i -> row("a", "g-" + i)).toList();
+                    start.await();
+                    return repo.insertIgnoringDuplicates(rows);
+                }));
+            }
+            start.countDown();
+
+            int total = 0;
+            for (Future<Integer> f : inserted) total += f.get(30, TimeUnit.SECONDS);
+            assertThat(total).isEqualTo(300);
+            assertThat(repo.count()).isEqualTo(300);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void descriptions_written_as_large_objects_read_back_through_hibernate() {
+        NewsEntity row = row("a", "g-1");
+        row.setDescription("Описание новости — длинное ".repeat(200));
+        repo.insertIgnoringDuplicates(new ArrayList<>(List.of(row)));
+
+        assertThat(jdbc.queryForObject("select data_type from information_schema.columns where table_name = 'news' and column_name = 'description'",
+                String.class)).isEqualTo("oid");
+        // large objects are only readable inside a transaction
+        String read = new TransactionTemplate(transactions).execute(s -> repo.findById(row.getId()).orElseThrow().getDescription());
+        assertThat(read).isEqualTo(row.getDescription());
+    }
+
+    @Test
+    void bulk_ids_come_in_sequence_blocks_that_hibernate_does_not_reuse() {
+        List<NewsEntity> rows = new ArrayList<>(IntStream.range(0, 120).mapToObj(i -> row("a", "g-" + i)).toList());
+        assertThat(repo.insertIgnoringDuplicates(rows)).isEqualTo(120);
+
+        List<Long> ids = rows.stream().map(NewsEntity::getId).toList();
+        assertThat(ids).doesNotHaveDuplicates().allMatch(id -> id > 0);
+        assertThat(jdbc.queryForObject("select last_value from news_seq", Long.class)).isGreaterThanOrEqualTo(ids.stream().max(Long::compare).orElseThrow());
+
+        NewsEntity saved = new TransactionTemplate(transactions).execute(s -> repo.save(row("b", "hibernate")));
+        assertThat(ids).doesNotContain(saved.getId());
+        assertThat(repo.count()).isEqualTo(121);
+    }
+
+    @Test
+    void restarts_only_ever_move_the_id_sequence_forward_past_stored_ids() {
+        // the context booted on an empty table; so does this restart
+        migration.afterPropertiesSet();
+        repo.insertIgnoringDuplicates(new ArrayList<>(IntStream.range(0, 10).mapToObj(i -> row("a", "g-" + i)).toList()));
+        long last = lastSequenceValue();
+
+        migration.afterPropertiesSet();
+        assertThat(lastSequenceValue()).as("ids already below the sequence").isEqualTo(last);
+
+        // an id the identity column of an older version handed out
+        long legacy = last + 500;
+        jdbc.update("insert into news (id, title, dedup_key, source_id, seen) values (?, 'legacy', ?, 'a', false)",
+                legacy, row("a", "legacy").getDedupKey());
+        migration.afterPropertiesSet();
+        assertThat(lastSequenceValue()).isEqualTo(legacy + NewsEntity.ID_ALLOCATION);
+
+        List<NewsEntity> after = new ArrayList<>(List.of(row("b", "after-restart")));
+        repo.insertIgnoringDuplicates(after);
+        assertThat(after.get(0).getId()).isGreaterThan(legacy);
+    }
+
+    @Test
+    void hex_dedup_keys_of_older_versions_are_converted_and_keep_deduplicating() {
+        // an older version stored the full SHA-256 as 64 hex characters
+        jdbc.execute("alter table news alter column dedup_key type varchar(64) using encode(dedup_key, 'hex')");
+        NewsEntity old = row("a", "g-old");
+        jdbc.update("insert into news (id, title, link, guid, dedup_key, source_id, seen) values (nextval('news_seq'), ?, ?, ?, ?, ?, false)",
+                old.getTitle(), old.getLink(), old.getGuid(), ItemKey.of("a", "g-old", old.getLink(), old.getTitle(), null), "a");
+
+        migration.afterPropertiesSet();
+
+        assertThat(jdbc.queryForObject("select data_type from information_schema.columns where table_name = 'news' and column_name = 'dedup_key'",
+                String.class)).isEqualTo("bytea");
+        assertThat(jdbc.queryForObject("select dedup_key from news", byte[].class)).isEqualTo(old.getDedupKey());
+        assertThat(repo.insertIgnoringDuplicates(new ArrayList<>(List.of(row("a", "g-old"), row("a", "g-new"))))).isEqualTo(1);
+        assertThat(repo.count()).isEqualTo(2);
+    }
+
+    private long lastSequenceValue() {
+        return jdbc.queryForObject("select last_value from news_seq", Long.class);
+    }
+
+    static NewsEntity row(String sourceId, String guid) {
+        NewsEntity e = new NewsEntity();
+        e.setTitle("Title " + guid);
+        e.setDescription("Desc " + guid);
+        e.setLink("https://" + sourceId + ".example/" + guid);
+        e.setGuid(guid);
+        e.setDedupKey(ItemKey.binary(sourceId, guid, e.getLink(), e.getTitle(), null));
+        e.setPublishedAt(NOW);
+        e.setAddedAt(NOW);
+        e.setSourceId(sourceId);
+        e.setSourceName(sourceId);
+        e.setSourceUrl("https://" + sourceId + ".example/rss");
+        return e;
+    }
+}
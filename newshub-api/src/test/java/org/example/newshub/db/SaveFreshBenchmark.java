@@ -0,0 +1,94 @@
+package org.example.newshub.db;
+
+import org.example.newshub.common.kafka.ItemKey;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rows per second through {@link NewsBulkWrites#insertIgnoringDuplicates}, the insert behind
+ * {@code NewsService.saveFresh}, for batches of fresh items. Not a test: run {@link #main}, or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main SaveFreshBenchmark}. Uses an in-memory
+ * H2 by default; {@code -Dbench.url=... -Dbench.user=... -Dbench.password=...} points it at a
+ * database whose {@code news} table the application already created. The insert goes through
+ * JDBC, not Hibernate, so the {@code hibernate.jdbc} batching settings do not change what it measures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SaveFreshBenchmark {
+
+    private static final int ROWS = 1000;
+
+    private SingleConnectionDataSource dataSource;
+    private NewsBulkWrites writes;
+    private long next;
+
+    @Setup
+    public void setUp() {
+        String url = System.getProperty("bench.url");
+        dataSource = new SingleConnectionDataSource(
+                url != null ? url : "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                System.getProperty("bench.user", "sa"), System.getProperty("bench.password", ""), true);
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        if (url == null) {
+            // what Hibernate generates for NewsEntity on H2
+            jdbc.execute("""
+                    create table news (
+                        id bigint generated by default as identity primary key,
+                        title varchar(512), description clob, link varchar(2048), category varchar(256),
+                        guid varchar(2048), dedup_key binary(16) not null unique, pub_date_raw varchar(256),
+                        published_at timestamp(6) with time zone, added_at timestamp(6) with time zone,
+                        source_id varchar(64), source_name varchar(256), source_url varchar(2048),
+                        seen boolean not null)""");
+            jdbc.execute("create sequence news_seq start with 1 increment by 50");
+        }
+        writes = new NewsBulkWritesImpl(jdbc);
+        next = System.nanoTime();
+    }
+
+    @TearDown
+    public void tearDown() {
+        dataSource.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public int insertFresh() {
+        List<NewsEntity> rows = new ArrayList<>(ROWS);
+        Instant now = Instant.now();
+        for (int i = 0; i < ROWS; i++) rows.add(row(next++, now));
+        return writes.insertIgnoringDuplicates(rows);
+    }
+
+    private static NewsEntity row(long n, Instant now) {
+        NewsEntity e = new NewsEntity();
+        e.setTitle("Минфин предложил изменить порядок уплаты налогов " + n);
+        e.setDescription("Описание новости " + n);
+        e.setLink("https://lenta.ru/news/" + n);
+        e.setCategory("Экономика");
+        e.setGuid("https://lenta.ru/news/" + n);
+        e.setDedupKey(ItemKey.binary("lenta", e.getGuid(), e.getLink(), e.getTitle(), null));
+        e.setPublishedAt(now);
+        e.setAddedAt(now);
+        e.setSourceId("lenta");
+        e.setSourceName("Лента.ру");
+        e.setSourceUrl("https://lenta.ru/rss");
+        return e;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SaveFreshBenchmark.class.getSimpleName()).build()).run();
+    }
+}
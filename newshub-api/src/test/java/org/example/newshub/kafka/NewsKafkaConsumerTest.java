@@ -0,0 +1,80 @@
+package org.example.newshub.kafka;
+
+import org.example.newshub.common.kafka.NewsBatchEvent;
+import org.example.newshub.common.kafka.NewsItemPayload;
+import org.example.newshub.db.NewsEntity;
+import org.example.newshub.db.NewsJpaRepository;
+import org.example.newshub.service.FeedRegistry;
+import org.example.newshub.service.NewsService;
+import org.example.newshub.service.RecentDedupKeys;
+import org.example.newshub.service.RefreshClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@Import({NewsKafkaConsumer.class, NewsService.class, RecentDedupKeys.class})
+// the listener runs outside any transaction; a failed one must not take the test's with it
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NewsKafkaConsumerTest {
+
+    private static final Instant NOW = Instant.parse("2025-12-18T12:00:00Z");
+
+    @Autowired NewsKafkaConsumer consumer;
+    @Autowired NewsJpaRepository repo;
+    @Autowired NewsService newsService;
+
+    @MockBean FeedRegistry feeds;
+    @MockBean RefreshClient refreshClient;
+
+    @Test
+    void a_batch_that_cannot_be_stored_does_not_drop_the_rest_of_the_poll() {
+        NewsBatchEvent bad = batch("b", "x".repeat(3000)); // longer than the guid column
+
+        assertThatThrownBy(() -> consumer.onBatches(List.of(batch("a", "a-1"), bad, batch("c", "c-1"))))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, ex -> assertThat(ex.getIndex()).isEqualTo(1));
+
+        assertThat(repo.findAll()).extracting(NewsEntity::getGuid).containsExactlyInAnyOrder("a-1", "c-1");
+
+        // the container redelivers from the failed batch; what was stored already is not stored twice
+        assertThatThrownBy(() -> consumer.onBatches(List.of(bad, batch("c", "c-1"))))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, ex -> assertThat(ex.getIndex()).isZero());
+        assertThat(repo.count()).isEqualTo(2);
+        repo.deleteAll();
+    }
+
+    @Test
+    void fetch_errors_of_a_poll_stored_again_are_recorded_once() {
+        NewsBatchEvent bad = batch("b", "x".repeat(3000));
+        NewsBatchEvent failedFetch = new NewsBatchEvent("f-errors", NOW, "e", "Source e", "https://e.example/rss", List.of(), "HTTP 503");
+
+        assertThatThrownBy(() -> consumer.onBatches(List.of(failedFetch, bad)))
+                .isInstanceOf(BatchListenerFailedException.class);
+        assertThatThrownBy(() -> consumer.onBatches(List.of(bad)))
+                .isInstanceOf(BatchListenerFailedException.class);
+        // a redelivery that starts at the error batch itself
+        consumer.onBatches(List.of(failedFetch));
+
+        assertThat(newsService.lastErrors()).filteredOn(e -> e.startsWith("Source e ")).containsExactly("Source e (https://e.example/rss): HTTP 503");
+        repo.deleteAll();
+    }
+
+    private static NewsBatchEvent batch(String sourceId, String guid) {
+        NewsItemPayload item = new NewsItemPayload(
+                "Title " + guid.length(), "Desc", "https://example.com/" + sourceId, "Tech",
+                "Thu, 18 Dec 2025 12:00:00 GMT", NOW, NOW,
+                guid, sourceId, "Source " + sourceId, "https://" + sourceId + ".example/rss");
+        return new NewsBatchEvent("f", NOW, sourceId, "Source " + sourceId, "https://" + sourceId + ".example/rss", List.of(item), null);
+    }
+}
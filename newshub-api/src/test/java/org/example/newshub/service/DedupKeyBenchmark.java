@@ -0,0 +1,86 @@
+package org.example.newshub.service;
+
+import org.example.newshub.common.kafka.NewsItemPayload;
+import org.example.newshub.model.NewsItem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streamed binary {@link DedupKey} vs the previous concatenate-then-hash hex key, for both item
+ * shapes. Not a test: run {@link #main} from the IDE, or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main DedupKeyBenchmark}
+ * (add {@code -prof gc} for allocation per key).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DedupKeyBenchmark {
+
+    private NewsItemPayload payload;
+    private NewsItem item;
+
+    @Setup
+    public void setUp() {
+        Instant now = Instant.parse("2024-12-03T11:05:00Z");
+        payload = new NewsItemPayload(
+                "Минфин предложил изменить порядок уплаты налогов для малого бизнеса",
+                "Описание", "https://lenta.ru/news/2024/12/03/minfin-nalogi/", "Экономика",
+                "Tue, 03 Dec 2024 14:05:00 +0300", now, now,
+                "https://lenta.ru/news/2024/12/03/minfin-nalogi/",
+                "lenta", "Лента.ру", "https://lenta.ru/rss");
+        item = new NewsItem(1L, payload.title(), payload.description(), payload.link(), payload.category(),
+                payload.pubDateRaw(), now, now, payload.guid(), payload.sourceId(), payload.sourceName(),
+                payload.sourceUrl(), false);
+    }
+
+    @Benchmark
+    public String legacyPayload() {
+        return legacy(payload.sourceId(), payload.guid(), payload.link(), payload.title(), payload.pubDateRaw());
+    }
+
+    @Benchmark
+    public byte[] payload() {
+        return DedupKey.of(payload);
+    }
+
+    @Benchmark
+    public String legacyItem() {
+        return legacy(item.sourceId(), item.guid(), item.link(), item.title(), item.pubDateRaw());
+    }
+
+    @Benchmark
+    public byte[] item() {
+        return DedupKey.of(item);
+    }
+
+    /** The implementation this benchmark replaced. */
+    static String legacy(String sourceId, String guid, String link, String title, String pubDateRaw) {
+        String input = n(sourceId) + "|" + n(guid) + "|" + n(link) + "|" + n(title) + "|" + n(pubDateRaw);
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(input.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String n(String s) {
+        return s == null ? "" : s;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DedupKeyBenchmark.class.getSimpleName()).build()).run();
+    }
+}
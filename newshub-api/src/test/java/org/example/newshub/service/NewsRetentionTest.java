@@ -0,0 +1,78 @@
+package org.example.newshub.service;
+
+import org.example.newshub.common.kafka.ItemKey;
+import org.example.newshub.db.NewsEntity;
+import org.example.newshub.db.NewsJpaRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class NewsRetentionTest {
+
+    private static final Instant NOW = Instant.parse("2025-12-18T12:00:00Z");
+
+    @Autowired NewsJpaRepository repo;
+
+    private final RecentDedupKeys recentKeys = new RecentDedupKeys(100);
+
+    @Test
+    void keeps_the_newest_rows_up_to_max_items_even_when_they_share_an_instant() {
+        for (int i = 0; i < 5; i++) seed("a", "old-" + i, NOW.minusSeconds(60));
+        for (int i = 0; i < 3; i++) seed("a", "new-" + i, NOW);
+        List<byte[]> stored = repo.findAll().stream().map(NewsEntity::getDedupKey).toList();
+        // off the test's transaction, which never commits, so the keys count at once
+        CompletableFuture.runAsync(() -> recentKeys.addAfterCommit(stored)).join();
+
+        assertThat(retention(4, 0, 0, 2).enforce()).isEqualTo(4);
+
+        assertThat(repo.findAll()).extracting(NewsEntity::getTitle)
+                .containsExactlyInAnyOrder("new-0", "new-1", "new-2", "old-4");
+        assertThat(recentKeys.size()).as("deleted rows are no longer known as stored").isEqualTo(4);
+        assertThat(recentKeys.contains(key("a", "old-0"))).isFalse();
+        assertThat(recentKeys.contains(key("a", "old-4"))).isTrue();
+    }
+
+    @Test
+    void drops_rows_past_max_age_and_over_the_per_source_quota() {
+        seed("a", "stale", NOW.minus(Duration.ofHours(25)));
+        for (int i = 0; i < 4; i++) seed("a", "a-" + i, NOW.minusSeconds(i));
+        seed("b", "b-0", NOW);
+
+        assertThat(retention(0, 24, 2, 1000).enforce()).isEqualTo(3);
+
+        assertThat(repo.findAll()).extracting(NewsEntity::getTitle)
+                .containsExactlyInAnyOrder("a-0", "a-1", "b-0");
+        assertThat(retention(0, 24, 2, 1000).enforce()).isZero();
+    }
+
+    private NewsRetention retention(int maxItems, long maxAgeHours, int perSourceMax, int chunk) {
+        return new NewsRetention(repo, recentKeys, maxItems, maxAgeHours, perSourceMax, chunk, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    private static byte[] key(String sourceId, String title) {
+        return ItemKey.binary(sourceId, title, "https://example.com/" + title, title, null);
+    }
+
+    private void seed(String sourceId, String title, Instant addedAt) {
+        NewsEntity e = new NewsEntity();
+        e.setTitle(title);
+        e.setLink("https://example.com/" + title);
+        e.setGuid(title);
+        e.setDedupKey(key(sourceId, title));
+        e.setPublishedAt(addedAt);
+        e.setAddedAt(addedAt);
+        e.setSourceId(sourceId);
+        e.setSourceName(sourceId);
+        repo.save(e);
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.newshub.service;
 
+import org.example.newshub.common.kafka.FetchCompleteEvent;
+import org.example.newshub.common.kafka.ItemKey;
 import org.example.newshub.common.kafka.NewsBatchEvent;
 import org.example.newshub.common.kafka.NewsItemPayload;
 import org.example.newshub.db.NewsEntity;
@@ -20,7 +22,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.when;
 
 @DataJpaTest
-@Import(NewsService.class)
+@Import({NewsService.class, RecentDedupKeys.class})
 class NewsServiceJpaTest {
 
     @Autowired NewsService newsService;
@@ -76,6 +78,53 @@ class NewsServiceJpaTest {
         assertThat(repo.count()).isEqualTo(2);
     }
 
+    @Test
+    void ingest_item_events_deduplicate_and_fetch_complete_records_errors() {
+        Instant now = Instant.parse("2025-12-18T12:00:00Z");
+        var it = new NewsItemPayload("Title", "Desc", "https://example.com/a", "Tech",
+                "Wed, 18 Dec 2025 12:00:00 GMT", now, now, "guid-1", "src", "Source", "https://source");
+
+        assertThat(newsService.ingest(it).added()).isEqualTo(1);
+        assertThat(newsService.ingest(it).added()).isZero();
+        assertThat(repo.count()).isEqualTo(1);
+
+        newsService.recordFetch(new FetchCompleteEvent("f", now, "bad", "Bad", "https://bad", 0, "HTTP 503"));
+        assertThat(newsService.lastErrors()).containsExactly("Bad (https://bad): HTTP 503");
+    }
+
+    @Test
+    void ingestAll_stores_a_whole_poll_and_deduplicates_across_its_batches() {
+        Instant now = Instant.parse("2025-12-18T12:00:00Z");
+        var shared = new NewsItemPayload("Shared", "Desc", "https://example.com/s", "Tech",
+                null, now, now, "guid-s", "a", "A", "https://a");
+        var onlyB = new NewsItemPayload("Only B", "Desc", "https://example.com/b", "Tech",
+                null, now, now, "guid-b", "b", "B", "https://b");
+
+        var r = newsService.ingestAll(List.of(
+                new NewsBatchEvent("f", now, "a", "A", "https://a", List.of(shared), null),
+                new NewsBatchEvent("f", now, "b", "B", "https://b", List.of(shared, onlyB), null)));
+
+        assertThat(r.added()).isEqualTo(2);
+        assertThat(repo.count()).isEqualTo(2);
+        assertThat(newsService.ingestAll(List.of(new NewsBatchEvent("g", now, "b", "B", "https://b", List.of(onlyB), null))).added()).isZero();
+    }
+
+    @Test
+    void bulk_inserted_ids_share_the_entity_sequence_and_markSeen_flags_them() {
+        seed("saved by hibernate", "d", "Tech", "src1", "Lenta");
+        Instant now = Instant.parse("2025-12-18T12:00:00Z");
+        var it = new NewsItemPayload("Bulk", "Desc", "https://example.com/bulk", "Tech",
+                null, now, now, "guid-bulk", "src1", "Lenta", "https://src1");
+        newsService.ingestAll(List.of(new NewsBatchEvent("f", now, "src1", "Lenta", "https://src1", List.of(it), null)));
+        seed("saved after", "d", "Tech", "src1", "Lenta");
+
+        var items = newsService.list("date", null, null, null, false, 1, 100).items();
+        assertThat(items).extracting(NewsItem::id).doesNotHaveDuplicates().hasSize(3);
+
+        newsService.markSeen(items);
+        assertThat(repo.countUnseen()).isZero();
+    }
+
     @Test
     void list_filtersByCategory_queryAndMyKeywords_withWordBoundaries() {
         seed("linux kernel release", "New linux kernel", "Tech", "src1", "Lenta");
@@ -102,7 +151,7 @@ class NewsServiceJpaTest {
         e.setCategory(category);
         e.setLink("https://example.com/" + title.replace(" ", "-"));
         e.setGuid("g-" + title.hashCode());
-        e.setDedupKey("k-" + System.nanoTime());
+        e.setDedupKey(ItemKey.binary(sourceId, e.getGuid(), e.getLink(), title, "now"));
         e.setPubDateRaw("now");
         e.setPublishedAt(Instant.now());
         e.setAddedAt(Instant.now());
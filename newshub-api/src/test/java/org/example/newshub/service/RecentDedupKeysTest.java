@@ -0,0 +1,41 @@
+package org.example.newshub.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecentDedupKeysTest {
+
+    @Test
+    void keys_count_only_after_commit_and_the_least_recent_are_evicted() {
+        RecentDedupKeys recent = new RecentDedupKeys(2);
+        byte[] a = key(1), b = key(2), c = key(3);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            recent.addAfterCommit(List.of(a, b));
+            assertThat(recent.contains(a)).isFalse();
+            TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.afterCommit());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(recent.contains(a)).isTrue();
+
+        recent.addAfterCommit(List.of(c));
+        assertThat(recent.contains(a)).isTrue();
+        assertThat(recent.contains(b)).as("least recently used").isFalse();
+        assertThat(recent.contains(c)).isTrue();
+
+        recent.clear();
+        assertThat(recent.size()).isZero();
+    }
+
+    private static byte[] key(int n) {
+        byte[] k = new byte[16];
+        k[15] = (byte) n;
+        return k;
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.newshub.common.kafka;
+
+import org.example.newshub.common.dto.FeedDto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The full list of selected feeds, published by the API on the compacted feed-config topic
+ * whenever the selection changes. {@code version} is the same value the API sends as the ETag
+ * of {@code /api/feeds/selected}, so a pushed list and a fetched one can be compared.
+ */
+public record FeedConfigEvent(
+        String version,
+        Instant changedAt,
+        List<FeedDto> selected
+) {}
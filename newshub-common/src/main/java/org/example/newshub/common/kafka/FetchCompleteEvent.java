@@ -0,0 +1,22 @@
+package org.example.newshub.common.kafka;
+
+import java.time.Instant;
+
+/**
+ * Control event sent once per feed and fetch when items are published one record each.
+ * {@code items} is the number of item records sent before it; {@code error} is set when
+ * the fetch failed and no items were sent.
+ */
+public record FetchCompleteEvent(
+        String fetchId,
+        Instant fetchedAt,
+        String sourceId,
+        String sourceName,
+        String sourceUrl,
+        int items,
+        String error
+) {
+    public boolean ok() {
+        return error == null || error.isBlank();
+    }
+}
@@ -0,0 +1,266 @@
+package org.example.newshub.common.kafka;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Compact binary encoding of the news events, as an alternative to JSON on the wire.
+ * <p>
+ * Layout: magic {@code 'N'}, format version, type tag, then the fields in record order.
+ * Version 2 added the item's raw title after its guid; version 1 messages still decode.
+ * Strings are a varint of (byte length + 1) followed by UTF-8, 0 meaning null; instants are a
+ * presence byte, zig-zag varint seconds and varint nanos. Items in a batch do not repeat their
+ * source: a varint reference of 0 means "the batch's source", {@code n} refers to the n-th
+ * source defined earlier in the message, and the next free number defines a new one inline.
+ */
+public final class NewsBinaryCodec {
+
+    static final byte MAGIC = 'N';
+    static final byte VERSION = 2;
+
+    static final byte TYPE_BATCH = 1;
+    static final byte TYPE_ITEM = 2;
+    static final byte TYPE_FETCH_COMPLETE = 3;
+
+    private NewsBinaryCodec() {}
+
+    public static boolean supports(Object value) {
+        return value instanceof NewsBatchEvent || value instanceof NewsItemPayload || value instanceof FetchCompleteEvent;
+    }
+
+    public static byte[] encode(Object value) {
+        Writer w = new Writer();
+        w.out.write(MAGIC);
+        w.out.write(VERSION);
+        if (value instanceof NewsBatchEvent b) {
+            w.out.write(TYPE_BATCH);
+            writeBatch(w, b);
+        } else if (value instanceof NewsItemPayload it) {
+            w.out.write(TYPE_ITEM);
+            writeItem(w, it);
+            writeSource(w, new Source(it.sourceId(), it.sourceName(), it.sourceUrl()));
+        } else if (value instanceof FetchCompleteEvent e) {
+            w.out.write(TYPE_FETCH_COMPLETE);
+            w.string(e.fetchId());
+            w.instant(e.fetchedAt());
+            writeSource(w, new Source(e.sourceId(), e.sourceName(), e.sourceUrl()));
+            w.varint(e.items());
+            w.string(e.error());
+        } else {
+            throw new IllegalArgumentException("Unsupported type: " + (value == null ? "null" : value.getClass().getName()));
+        }
+        return w.out.toByteArray();
+    }
+
+    public static Object decode(byte[] data) {
+        if (data == null) return null;
+        Reader r = new Reader(ByteBuffer.wrap(data));
+        try {
+            if (r.in.get() != MAGIC) throw new IllegalArgumentException("Not a NewsHub binary message");
+            byte version = r.in.get();
+            if (version != VERSION && version != 1) throw new IllegalArgumentException("Unsupported format version " + version);
+            r.version = version;
+
+            byte type = r.in.get();
+            Object value = switch (type) {
+                case TYPE_BATCH -> readBatch(r);
+                case TYPE_ITEM -> {
+                    Item it = readItem(r);
+                    yield it.withSource(readSource(r));
+                }
+                case TYPE_FETCH_COMPLETE -> {
+                    String fetchId = r.string();
+                    Instant fetchedAt = r.instant();
+                    Source s = readSource(r);
+                    yield new FetchCompleteEvent(fetchId, fetchedAt, s.id(), s.name(), s.url(), r.varint(), r.string());
+                }
+                default -> throw new IllegalArgumentException("Unknown message type " + type);
+            };
+            if (r.in.hasRemaining()) throw new IllegalArgumentException("Trailing bytes after message");
+            return value;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException ex) {
+            throw new IllegalArgumentException("Truncated NewsHub binary message", ex);
+        }
+    }
+
+    private static void writeBatch(Writer w, NewsBatchEvent b) {
+        w.string(b.fetchId());
+        w.instant(b.fetchedAt());
+        Source batchSource = new Source(b.sourceId(), b.sourceName(), b.sourceUrl());
+        writeSource(w, batchSource);
+        w.string(b.error());
+
+        List<NewsItemPayload> items = b.items();
+        w.varint(items == null ? 0 : items.size() + 1);
+        if (items == null) return;
+
+        List<Source> dictionary = new ArrayList<>();
+        for (NewsItemPayload it : items) {
+            writeItem(w, it);
+            Source s = new Source(it.sourceId(), it.sourceName(), it.sourceUrl());
+            if (s.equals(batchSource)) {
+                w.varint(0);
+                continue;
+            }
+            int ref = dictionary.indexOf(s);
+            if (ref >= 0) {
+                w.varint(ref + 1);
+            } else {
+                dictionary.add(s);
+                w.varint(dictionary.size());
+                writeSource(w, s);
+            }
+        }
+    }
+
+    private static NewsBatchEvent readBatch(Reader r) {
+        String fetchId = r.string();
+        Instant fetchedAt = r.instant();
+        Source batchSource = readSource(r);
+        String error = r.string();
+
+        int count = r.varint();
+        List<NewsItemPayload> items = null;
+        if (count > 0) {
+            items = new ArrayList<>(Math.min(count - 1, 4096));
+            List<Source> dictionary = new ArrayList<>();
+            for (int i = 0; i < count - 1; i++) {
+                Item it = readItem(r);
+                int ref = r.varint();
+                Source s;
+                if (ref == 0) {
+                    s = batchSource;
+                } else if (ref <= dictionary.size()) {
+                    s = dictionary.get(ref - 1);
+                } else if (ref == dictionary.size() + 1) {
+                    s = readSource(r);
+                    dictionary.add(s);
+                } else {
+                    throw new IllegalArgumentException("Bad source reference " + ref);
+                }
+                items.add(it.withSource(s));
+            }
+        }
+        return new NewsBatchEvent(fetchId, fetchedAt, batchSource.id(), batchSource.name(), batchSource.url(), items, error);
+    }
+
+    private static void writeItem(Writer w, NewsItemPayload it) {
+        w.string(it.title());
+        w.string(it.description());
+        w.string(it.link());
+        w.string(it.category());
+        w.string(it.pubDateRaw());
+        w.instant(it.publishedAt());
+        w.instant(it.addedAt());
+        w.string(it.guid());
+        w.string(it.rawTitle());
+    }
+
+    private static Item readItem(Reader r) {
+        return new Item(r.string(), r.string(), r.string(), r.string(), r.string(), r.instant(), r.instant(), r.string(),
+                r.version >= 2 ? r.string() : null);
+    }
+
+    private static void writeSource(Writer w, Source s) {
+        w.string(s.id());
+        w.string(s.name());
+        w.string(s.url());
+    }
+
+    private static Source readSource(Reader r) {
+        return new Source(r.string(), r.string(), r.string());
+    }
+
+    private record Source(String id, String name, String url) {}
+
+    private record Item(String title, String description, String link, String category, String pubDateRaw,
+                        Instant publishedAt, Instant addedAt, String guid, String rawTitle) {
+        NewsItemPayload withSource(Source s) {
+            return new NewsItemPayload(title, description, link, category, pubDateRaw, publishedAt, addedAt, guid,
+                    s.id(), s.name(), s.url(), rawTitle);
+        }
+    }
+
+    private static final class Writer {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(512);
+
+        void varint(int v) {
+            varlong(v & 0xFFFFFFFFL);
+        }
+
+        void varlong(long v) {
+            while ((v & ~0x7FL) != 0) {
+                out.write((int) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            out.write((int) v);
+        }
+
+        void string(String s) {
+            if (s == null) {
+                varint(0);
+                return;
+            }
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length + 1);
+            out.write(bytes, 0, bytes.length);
+        }
+
+        void instant(Instant t) {
+            if (t == null) {
+                out.write(0);
+                return;
+            }
+            out.write(1);
+            varlong((t.getEpochSecond() << 1) ^ (t.getEpochSecond() >> 63));
+            varint(t.getNano());
+        }
+    }
+
+    private static final class Reader {
+        final ByteBuffer in;
+        byte version;
+
+        Reader(ByteBuffer in) {
+            this.in = in;
+        }
+
+        int varint() {
+            long v = varlong();
+            if (v > Integer.MAX_VALUE) throw new IllegalArgumentException("varint out of range");
+            return (int) v;
+        }
+
+        long varlong() {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = in.get();
+                v |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) return v;
+            }
+            throw new IllegalArgumentException("Malformed varint");
+        }
+
+        String string() {
+            int len = varint();
+            if (len == 0) return null;
+            Objects.checkFromIndexSize(in.position(), len - 1, in.limit());
+            String s = new String(in.array(), in.arrayOffset() + in.position(), len - 1, StandardCharsets.UTF_8);
+            in.position(in.position() + len - 1);
+            return s;
+        }
+
+        Instant instant() {
+            if (in.get() == 0) return null;
+            long zz = varlong();
+            long seconds = (zz >>> 1) ^ -(zz & 1);
+            return Instant.ofEpochSecond(seconds, varint());
+        }
+    }
+}
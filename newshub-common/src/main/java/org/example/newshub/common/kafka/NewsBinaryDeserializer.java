@@ -0,0 +1,17 @@
+package org.example.newshub.common.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+/** Kafka value deserializer for {@link NewsBinaryCodec}; the message itself names its type. */
+public class NewsBinaryDeserializer implements Deserializer<Object> {
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        try {
+            return NewsBinaryCodec.decode(data);
+        } catch (IllegalArgumentException ex) {
+            throw new SerializationException("Cannot decode record from " + topic + ": " + ex.getMessage(), ex);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.newshub.common.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+/** Kafka value serializer for {@link NewsBinaryCodec}. */
+public class NewsBinarySerializer implements Serializer<Object> {
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        if (data == null) return null;
+        if (!NewsBinaryCodec.supports(data)) {
+            throw new SerializationException("Cannot encode " + data.getClass().getName() + " for topic " + topic);
+        }
+        return NewsBinaryCodec.encode(data);
+    }
+}
@@ -2,6 +2,11 @@ package org.example.newshub.common.kafka;
 
 import java.time.Instant;
 
+/**
+ * {@code rawTitle} is the title as the feed sent it, when normalizing changed it, and null
+ * otherwise. {@link ItemKey} hashes it instead of the normalized title, so items keep the
+ * keys they were stored under before titles were normalized.
+ */
 public record NewsItemPayload(
         String title,
         String description,
@@ -13,5 +18,17 @@ public record NewsItemPayload(
         String guid,
         String sourceId,
         String sourceName,
-        String sourceUrl
-) {}
+        String sourceUrl,
+        String rawTitle
+) {
+    public NewsItemPayload(String title, String description, String link, String category, String pubDateRaw,
+                           Instant publishedAt, Instant addedAt, String guid,
+                           String sourceId, String sourceName, String sourceUrl) {
+        this(title, description, link, category, pubDateRaw, publishedAt, addedAt, guid, sourceId, sourceName, sourceUrl, null);
+    }
+
+    /** The title the item's key is computed from. */
+    public String keyTitle() {
+        return rawTitle != null ? rawTitle : title;
+    }
+}
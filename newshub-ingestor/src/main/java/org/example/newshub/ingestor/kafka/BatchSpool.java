@@ -0,0 +1,277 @@
+package org.example.newshub.ingestor.kafka;
+
+import jakarta.annotation.PreDestroy;
+import org.example.newshub.common.kafka.NewsBatchEvent;
+import org.example.newshub.common.kafka.NewsBinaryCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only local spool for batches Kafka could not take. Batches are written to
+ * memory-mapped segment files as {@code [int length][int crc32c][NewsBinaryCodec bytes]} and
+ * replayed oldest first; a replayed record is marked by negating its length, and a segment
+ * is deleted once all its records are replayed. The length is written last, so a record
+ * torn by a crash reads as the end of the segment. When the spool grows past
+ * {@code max-bytes} the oldest segments are dropped.
+ */
+@Component
+public class BatchSpool {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchSpool.class);
+    private static final int HEADER = 8;
+    private static final String SUFFIX = ".spool";
+
+    private final boolean enabled;
+    private final Path dir;
+    private final int segmentBytes;
+    private final long maxBytes;
+
+    private final Deque<Segment> segments = new ArrayDeque<>();
+    private boolean opened;
+
+    public BatchSpool(
+            @Value("${newshub.kafka.spool.enabled:true}") boolean enabled,
+            @Value("${newshub.kafka.spool.dir:data/spool}") String dir,
+            @Value("${newshub.kafka.spool.segment-bytes:16777216}") int segmentBytes,
+            @Value("${newshub.kafka.spool.max-bytes:268435456}") long maxBytes
+    ) {
+        this.enabled = enabled && dir != null && !dir.isBlank();
+        this.dir = this.enabled ? Path.of(dir.trim()) : null;
+        this.segmentBytes = Math.max(64 * 1024, segmentBytes);
+        this.maxBytes = Math.max(this.segmentBytes, maxBytes);
+    }
+
+    /** Writes the batch durably; false if the spool is disabled or the write failed. */
+    public synchronized boolean append(NewsBatchEvent batch) {
+        if (!enabled || batch == null) return false;
+        try {
+            open();
+            byte[] data = NewsBinaryCodec.encode(batch);
+            Segment seg = segments.peekLast();
+            if (seg == null || seg.remaining() < HEADER + data.length) {
+                seg = Segment.create(dir, seg == null ? 1 : seg.seq + 1, Math.max(segmentBytes, HEADER + data.length));
+                segments.addLast(seg);
+                enforceRetention();
+            }
+            seg.write(data);
+            return true;
+        } catch (IOException | RuntimeException ex) {
+            log.error("Could not spool batch for {}: {}", batch.sourceId(), ex.toString());
+            return false;
+        }
+    }
+
+    /** Up to {@code max} of the oldest batches not yet replayed, in spool order. */
+    public synchronized List<Spooled> peek(int max) {
+        List<Spooled> out = new ArrayList<>();
+        if (!enabled) return out;
+        try {
+            open();
+        } catch (IOException ex) {
+            log.error("Could not open spool in {}: {}", dir, ex.toString());
+            return out;
+        }
+        for (Segment seg : segments) {
+            int pos = seg.readPos;
+            while (out.size() < max && pos < seg.writePos) {
+                int len = seg.buf.getInt(pos);
+                if (len > 0) {
+                    NewsBatchEvent batch = seg.read(pos, len);
+                    if (batch != null) {
+                        out.add(new Spooled(seg, pos, batch));
+                    } else {
+                        log.warn("Dropping corrupt spool record at {}:{}", seg.file.getFileName(), pos);
+                        seg.consume(pos, len);
+                    }
+                }
+                pos += HEADER + Math.abs(len);
+            }
+            if (out.size() >= max) break;
+        }
+        dropConsumed();
+        return out;
+    }
+
+    /** Marks a batch returned by {@link #peek} as delivered. */
+    public synchronized void ack(Spooled record) {
+        int len = record.segment().buf.getInt(record.offset());
+        if (len <= 0) return;
+        record.segment().consume(record.offset(), len);
+        dropConsumed();
+    }
+
+    public synchronized boolean isEmpty() {
+        if (!enabled) return true;
+        try {
+            open();
+        } catch (IOException ex) {
+            return true;
+        }
+        return segments.stream().allMatch(s -> s.pending == 0);
+    }
+
+    public synchronized int pending() {
+        return segments.stream().mapToInt(s -> s.pending).sum();
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        for (Segment seg : segments) seg.close();
+        segments.clear();
+        opened = false;
+    }
+
+    /** Maps the existing segments on first use, so a restart resumes where the last run stopped. */
+    private void open() throws IOException {
+        if (opened) return;
+        Files.createDirectories(dir);
+        List<Path> files;
+        try (Stream<Path> list = Files.list(dir)) {
+            files = list.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+        for (Path file : files) {
+            segments.addLast(Segment.recover(file));
+        }
+        opened = true;
+        dropConsumed();
+        if (pending() > 0) log.info("Spool in {} holds {} batches to replay", dir, pending());
+    }
+
+    /** Deletes fully replayed segments, keeping the newest one to append to. */
+    private void dropConsumed() {
+        while (segments.size() > 1 && segments.peekFirst().pending == 0) {
+            segments.pollFirst().delete();
+        }
+    }
+
+    private void enforceRetention() {
+        long total = segments.stream().mapToLong(s -> s.buf.capacity()).sum();
+        while (total > maxBytes && segments.size() > 1) {
+            Segment oldest = segments.pollFirst();
+            total -= oldest.buf.capacity();
+            if (oldest.pending > 0) {
+                log.warn("Spool over {} bytes: dropping {} unsent batches in {}", maxBytes, oldest.pending, oldest.file.getFileName());
+            }
+            oldest.delete();
+        }
+    }
+
+    /** A spooled batch and where it lives, for {@link #ack}. */
+    public record Spooled(Segment segment, int offset, NewsBatchEvent batch) {}
+
+    static final class Segment {
+        final Path file;
+        final long seq;
+        final FileChannel channel;
+        final MappedByteBuffer buf;
+        int writePos;
+        int readPos;
+        int pending;
+
+        private Segment(Path file, long seq, FileChannel channel, MappedByteBuffer buf) {
+            this.file = file;
+            this.seq = seq;
+            this.channel = channel;
+            this.buf = buf;
+        }
+
+        static Segment create(Path dir, long seq, int size) throws IOException {
+            Path file = dir.resolve(String.format("%020d%s", seq, SUFFIX));
+            FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(file, seq, ch, ch.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        static Segment recover(Path file) throws IOException {
+            String name = file.getFileName().toString();
+            long seq = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment seg = new Segment(file, seq, ch, ch.map(FileChannel.MapMode.READ_WRITE, 0, ch.size()));
+
+            // a zero length, or one that runs past the end, is where writing stopped
+            int pos = 0;
+            boolean seenPending = false;
+            while (pos + HEADER <= seg.buf.capacity()) {
+                int len = seg.buf.getInt(pos);
+                if (len == 0 || Math.abs((long) len) > seg.buf.capacity() - pos - HEADER) break;
+                if (len > 0) {
+                    seg.pending++;
+                    seenPending = true;
+                } else if (!seenPending) {
+                    seg.readPos = pos + HEADER - len;
+                }
+                pos += HEADER + Math.abs(len);
+            }
+            seg.writePos = pos;
+            return seg;
+        }
+
+        int remaining() {
+            return buf.capacity() - writePos;
+        }
+
+        void write(byte[] data) {
+            int pos = writePos;
+            CRC32C crc = new CRC32C();
+            crc.update(data);
+            buf.put(pos + HEADER, data);
+            buf.putInt(pos + 4, (int) crc.getValue());
+            buf.force(pos + 4, HEADER - 4 + data.length);
+            buf.putInt(pos, data.length);
+            buf.force(pos, 4);
+            writePos = pos + HEADER + data.length;
+            pending++;
+        }
+
+        NewsBatchEvent read(int pos, int len) {
+            byte[] data = new byte[len];
+            buf.get(pos + HEADER, data);
+            CRC32C crc = new CRC32C();
+            crc.update(data);
+            if ((int) crc.getValue() != buf.getInt(pos + 4)) return null;
+            try {
+                return NewsBinaryCodec.decode(data) instanceof NewsBatchEvent b ? b : null;
+            } catch (RuntimeException ex) {
+                return null;
+            }
+        }
+
+        void consume(int pos, int len) {
+            buf.putInt(pos, -len);
+            pending--;
+            // skip past the replayed prefix so peek does not rescan it
+            while (readPos < writePos && buf.getInt(readPos) < 0) {
+                readPos += HEADER - buf.getInt(readPos);
+            }
+        }
+
+        void close() {
+            try {
+                channel.close();
+            } catch (IOException ignored) {}
+        }
+
+        void delete() {
+            close();
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex) {
+                log.warn("Could not delete spool segment {}: {}", file, ex.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.newshub.ingestor.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/** Collects the delivery futures of one refresh run and counts how many were acknowledged or spooled. */
+public class DeliveryTracker {
+
+    private final List<CompletableFuture<?>> deliveries = new ArrayList<>();
+
+    public synchronized void track(CompletableFuture<?> delivery) {
+        deliveries.add(delivery == null ? CompletableFuture.completedFuture(null) : delivery);
+    }
+
+    /**
+     * Waits up to {@code timeout} for outstanding deliveries. Anything still unconfirmed
+     * after that is counted as failed: the run cannot vouch for it.
+     */
+    public Deliveries await(Duration timeout) {
+        List<CompletableFuture<?>> all;
+        synchronized (this) {
+            all = List.copyOf(deliveries);
+        }
+        try {
+            CompletableFuture.allOf(all.toArray(CompletableFuture[]::new)).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ignored) {
+            // counted per future below
+        }
+
+        int acked = 0;
+        int spooled = 0;
+        for (CompletableFuture<?> f : all) {
+            if (!f.isDone() || f.isCompletedExceptionally()) continue;
+            if (f.join() == NewsKafkaPublisher.Delivery.SPOOLED) spooled++;
+            else acked++;
+        }
+        return new Deliveries(acked, spooled, all.size() - acked - spooled);
+    }
+
+    /** {@code spooled} batches are on local disk only, not yet on the broker. */
+    public record Deliveries(int acked, int spooled, int failed) {}
+}
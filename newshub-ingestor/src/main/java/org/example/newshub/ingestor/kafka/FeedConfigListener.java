@@ -0,0 +1,155 @@
+package org.example.newshub.ingestor.kafka;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.example.newshub.common.kafka.FeedConfigEvent;
+import org.example.newshub.ingestor.service.FeedApiClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Follows the API's compacted feed-config topic and hands every selected-feed list to
+ * {@link FeedApiClient}. Each replica needs every list, so the partitions are assigned
+ * directly rather than through a consumer group, and read from the start on every boot:
+ * compaction leaves little more than the current list there. Records that cannot be read or
+ * applied are skipped; if the consumer itself fails, a new one starts over after
+ * {@code retry-seconds}, and until then the REST list is used.
+ */
+@Component
+@ConditionalOnProperty(name = "newshub.api.feed-config.enabled", havingValue = "true", matchIfMissing = true)
+public class FeedConfigListener {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedConfigListener.class);
+
+    private final FeedApiClient feedApi;
+    private final String topic;
+    private final Duration retryDelay;
+    private final Supplier<Consumer<String, FeedConfigEvent>> consumers;
+
+    private volatile boolean running;
+    private volatile Consumer<String, FeedConfigEvent> consumer;
+    private Thread poller;
+
+    @Autowired
+    public FeedConfigListener(
+            FeedApiClient feedApi,
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${newshub.kafka.topics.feed-config:newshub.feed-config}") String topic,
+            @Value("${newshub.api.feed-config.retry-seconds:5}") long retrySeconds
+    ) {
+        this(feedApi, topic, Duration.ofSeconds(Math.max(1, retrySeconds)), () -> newConsumer(bootstrapServers));
+    }
+
+    FeedConfigListener(FeedApiClient feedApi, String topic, Duration retryDelay,
+                       Supplier<Consumer<String, FeedConfigEvent>> consumers) {
+        this.feedApi = feedApi;
+        this.topic = topic;
+        this.retryDelay = retryDelay;
+        this.consumers = consumers;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        poller = new Thread(this::run, "feed-config");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        Consumer<String, FeedConfigEvent> c = consumer;
+        if (c != null) c.wakeup();
+        if (poller != null) {
+            poller.interrupt();
+            poller.join(5000);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                follow();
+            } catch (WakeupException | InterruptedException ex) {
+                break; // shutting down
+            } catch (Exception ex) {
+                if (!running) break;
+                log.error("Following {} failed; selected feeds come from the API only until it restarts in {}s",
+                        topic, retryDelay.toSeconds(), ex);
+                try {
+                    Thread.sleep(retryDelay.toMillis());
+                } catch (InterruptedException ie) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void follow() throws InterruptedException {
+        Consumer<String, FeedConfigEvent> c = consumers.get();
+        consumer = c;
+        try {
+            List<TopicPartition> partitions = List.of();
+            while (running && partitions.isEmpty()) {
+                // the API creates the topic; until it has, there is nothing to follow
+                List<PartitionInfo> info = c.partitionsFor(topic);
+                partitions = info == null ? List.of() : info.stream().map(p -> new TopicPartition(topic, p.partition())).toList();
+                if (partitions.isEmpty()) Thread.sleep(5000);
+            }
+            c.assign(partitions);
+            c.seekToBeginning(partitions);
+            while (running) {
+                for (ConsumerRecord<String, FeedConfigEvent> record : c.poll(Duration.ofSeconds(1))) {
+                    apply(record);
+                }
+            }
+        } finally {
+            consumer = null;
+            c.close(Duration.ofSeconds(5));
+        }
+    }
+
+    private void apply(ConsumerRecord<String, FeedConfigEvent> record) {
+        // ErrorHandlingDeserializer hands over records it could not read with a null value
+        if (record.value() == null) {
+            log.warn("Skipping unreadable feed config at {}-{}@{}", record.topic(), record.partition(), record.offset());
+            return;
+        }
+        try {
+            feedApi.accept(record.value());
+        } catch (RuntimeException ex) {
+            log.warn("Skipping feed config {} at offset {}: {}", record.value().version(), record.offset(), ex.toString());
+        }
+    }
+
+    private static Consumer<String, FeedConfigEvent> newConsumer(String bootstrapServers) {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        JsonDeserializer<FeedConfigEvent> values = new JsonDeserializer<>(FeedConfigEvent.class, false);
+        values.addTrustedPackages("org.example.newshub.common.*");
+        return new KafkaConsumer<>(config, new StringDeserializer(), new ErrorHandlingDeserializer<>(values));
+    }
+}
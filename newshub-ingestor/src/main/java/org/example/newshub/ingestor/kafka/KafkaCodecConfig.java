@@ -0,0 +1,20 @@
+package org.example.newshub.ingestor.kafka;
+
+import org.example.newshub.common.kafka.NewsBinarySerializer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+
+/** {@code newshub.kafka.codec=binary} swaps the JSON value serializer for the compact binary codec. */
+@Configuration
+@ConditionalOnProperty(name = "newshub.kafka.codec", havingValue = "binary")
+public class KafkaCodecConfig {
+
+    @Bean
+    @SuppressWarnings("unchecked")
+    DefaultKafkaProducerFactoryCustomizer binaryValueSerializer() {
+        return factory -> ((DefaultKafkaProducerFactory<Object, Object>) factory).setValueSerializer(new NewsBinarySerializer());
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.newshub.ingestor.kafka;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * Shard ownership through a Kafka consumer group. Every ingestor replica joins the same group
+ * on the {@code feed-tasks} topic; the partitions Kafka assigns to a replica are the shards it
+ * owns, so replicas joining or leaving rebalance the feeds without any coordination of our own.
+ * The topic only carries membership; its records are ignored. If the consumer fails, this
+ * replica drops its shards and rejoins with a new consumer after {@code retry-seconds}.
+ */
+@Component
+@ConditionalOnProperty(name = "newshub.shard.mode", havingValue = "kafka")
+public class KafkaShardMembership implements ConsumerRebalanceListener {
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaShardMembership.class);
+
+    private final String bootstrapServers;
+    private final String topic;
+    private final String groupId;
+    private final Duration retryDelay;
+
+    private volatile Set<Integer> assigned = Set.of();
+    private volatile int partitionCount;
+    private volatile boolean running;
+    private volatile KafkaConsumer<byte[], byte[]> consumer;
+    private Thread poller;
+
+    public KafkaShardMembership(
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+            @Value("${newshub.shard.topic:newshub.feed-tasks}") String topic,
+            @Value("${newshub.shard.group:newshub-ingestor-shards}") String groupId,
+            @Value("${newshub.shard.retry-seconds:5}") long retrySeconds
+    ) {
+        this.bootstrapServers = bootstrapServers;
+        this.topic = topic;
+        this.groupId = groupId;
+        this.retryDelay = Duration.ofSeconds(Math.max(1, retrySeconds));
+    }
+
+    /** Partitions of the shard topic currently assigned to this replica. */
+    public Set<Integer> assigned() {
+        return assigned;
+    }
+
+    /** Partitions of the shard topic, or 0 until the topic has been seen. */
+    public int partitionCount() {
+        return partitionCount;
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        poller = new Thread(this::run, "feed-shards");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        KafkaConsumer<byte[], byte[]> c = consumer;
+        if (c != null) c.wakeup();
+        if (poller != null) {
+            poller.interrupt();
+            poller.join(5000);
+        }
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                poll();
+            } catch (WakeupException ignored) {
+                // shutting down
+            } catch (Exception ex) {
+                if (!running) break;
+                log.error("Shard membership failed; this replica owns no feeds until it rejoins in {}s", retryDelay.toSeconds(), ex);
+                try {
+                    Thread.sleep(retryDelay.toMillis());
+                } catch (InterruptedException ie) {
+                    break;
+                }
+            }
+        }
+    }
+
+    // polling is what keeps this replica in the group; there is nothing to process
+    private void poll() {
+        KafkaConsumer<byte[], byte[]> c = new KafkaConsumer<>(config());
+        consumer = c;
+        try {
+            c.subscribe(List.of(topic), this);
+            while (running) {
+                if (partitionCount == 0) partitionCount = c.partitionsFor(topic).size();
+                c.poll(Duration.ofSeconds(1));
+            }
+        } finally {
+            assigned = Set.of();
+            consumer = null;
+            c.close(Duration.ofSeconds(5));
+        }
+    }
+
+    private Map<String, Object> config() {
+        Map<String, Object> config = new HashMap<>();
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        config.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 1);
+        return config;
+    }
+
+    @Override
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+        Set<Integer> next = new TreeSet<>(assigned);
+        partitions.forEach(tp -> next.add(tp.partition()));
+        assigned = Set.copyOf(next);
+        log.info("Feed shards assigned: {}", next);
+    }
+
+    @Override
+    public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+        Set<Integer> next = new TreeSet<>(assigned);
+        partitions.forEach(tp -> next.remove(tp.partition()));
+        assigned = Set.copyOf(next);
+    }
+
+    @Override
+    public void onPartitionsLost(Collection<TopicPartition> partitions) {
+        onPartitionsRevoked(partitions);
+    }
+}
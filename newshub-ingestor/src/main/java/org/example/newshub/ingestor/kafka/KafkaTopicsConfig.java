@@ -0,0 +1,23 @@
+package org.example.newshub.ingestor.kafka;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/** Topics the ingestor creates itself; Spring's {@code KafkaAdmin} creates any that are missing on startup. */
+@Configuration
+public class KafkaTopicsConfig {
+
+    /** Carries only shard membership (see {@link KafkaShardMembership}); its partitions are the shards. */
+    @Bean
+    @ConditionalOnProperty(name = "newshub.shard.mode", havingValue = "kafka")
+    NewTopic feedTasksTopic(
+            @Value("${newshub.shard.topic:newshub.feed-tasks}") String topic,
+            @Value("${newshub.shard.partitions:64}") int partitions
+    ) {
+        return TopicBuilder.name(topic).partitions(Math.max(1, partitions)).build();
+    }
+}
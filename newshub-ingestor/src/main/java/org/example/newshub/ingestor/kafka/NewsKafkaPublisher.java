@@ -1,36 +1,160 @@
 package org.example.newshub.ingestor.kafka;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.newshub.common.kafka.FetchCompleteEvent;
+import org.example.newshub.common.kafka.ItemKey;
 import org.example.newshub.common.kafka.NewsBatchEvent;
+import org.example.newshub.common.kafka.NewsItemPayload;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Publishes fetched feeds. In {@code batch} mode a feed is one {@link NewsBatchEvent} keyed by
+ * source; in {@code item} mode every item is its own record keyed by {@link ItemKey}, followed
+ * by a small {@link FetchCompleteEvent} keyed by source that also carries fetch errors.
+ * <p>
+ * Batches Kafka does not acknowledge go to the {@link BatchSpool}. While the spool holds
+ * anything, new batches are spooled directly, both to keep them in order and so a refresh does
+ * not wait on a broker that is down; a background task replays the spool once Kafka is back.
+ */
 @Component
 public class NewsKafkaPublisher {
 
     private static final Logger log = LoggerFactory.getLogger(NewsKafkaPublisher.class);
+    private static final int REPLAY_WINDOW = 64;
+
+    /** Where a published batch ended up: on the broker, or in the local spool waiting for it. */
+    public enum Delivery { ACKED, SPOOLED }
 
-    private final KafkaTemplate<String, NewsBatchEvent> kafkaTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
     private final String topic;
+    private final String itemsTopic;
+    private final String fetchCompleteTopic;
+    private final boolean itemEvents;
+    private final BatchSpool spool;
+    private final Duration replayInterval;
+    private ScheduledExecutorService replayer;
 
     public NewsKafkaPublisher(
-            KafkaTemplate<String, NewsBatchEvent> kafkaTemplate,
-            @Value("${newshub.kafka.topics.news:newshub.news}") String topic
+            KafkaTemplate<String, Object> kafkaTemplate,
+            BatchSpool spool,
+            @Value("${newshub.kafka.topics.news:newshub.news}") String topic,
+            @Value("${newshub.kafka.topics.items:newshub.news.items}") String itemsTopic,
+            @Value("${newshub.kafka.topics.fetch-complete:newshub.news.fetch-complete}") String fetchCompleteTopic,
+            @Value("${newshub.kafka.event-mode:batch}") String eventMode,
+            @Value("${newshub.kafka.spool.replay-seconds:10}") long replaySeconds
     ) {
         this.kafkaTemplate = kafkaTemplate;
         this.topic = topic;
+        this.itemsTopic = itemsTopic;
+        this.fetchCompleteTopic = fetchCompleteTopic;
+        this.itemEvents = "item".equalsIgnoreCase(eventMode == null ? "" : eventMode.trim());
+        this.spool = spool;
+        this.replayInterval = Duration.ofSeconds(Math.max(1, replaySeconds));
+    }
+
+    @PostConstruct
+    void startReplay() {
+        // its own thread: a replay blocked on an unreachable broker must not hold up the scheduler
+        replayer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("kafka-spool-"));
+        replayer.scheduleWithFixedDelay(this::replaySpool, replayInterval.toMillis(), replayInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopReplay() {
+        if (replayer != null) replayer.shutdownNow();
     }
 
-    public void publish(NewsBatchEvent batch) {
-        if (batch == null) return;
+    /**
+     * Hands the batch to the producer without waiting for the broker. The returned future
+     * completes with {@link Delivery#ACKED} when every record of the batch is acknowledged and
+     * with {@link Delivery#SPOOLED} when the batch went to the spool instead, and fails when
+     * neither happened; it never throws.
+     */
+    public CompletableFuture<Delivery> publish(NewsBatchEvent batch) {
+        if (batch == null) return CompletableFuture.completedFuture(Delivery.ACKED);
+        if (!spool.isEmpty() && spool.append(batch)) {
+            log.info("Spooled batch for {} (fetchId={}); {} waiting for Kafka", batch.sourceId(), batch.fetchId(), spool.pending());
+            return CompletableFuture.completedFuture(Delivery.SPOOLED);
+        }
+        return deliver(batch).thenApply(ok -> Delivery.ACKED).exceptionallyCompose(ex -> {
+            if (!spool.append(batch)) return CompletableFuture.failedFuture(ex);
+            log.warn("Spooled batch for {} (fetchId={}) until Kafka is back", batch.sourceId(), batch.fetchId());
+            return CompletableFuture.completedFuture(Delivery.SPOOLED);
+        });
+    }
+
+    /**
+     * Replays spooled batches oldest first, a window at a time. Stops at the first batch Kafka
+     * does not acknowledge, so the next attempt resumes in order.
+     */
+    void replaySpool() {
+        try {
+            List<BatchSpool.Spooled> window;
+            while (!(window = spool.peek(REPLAY_WINDOW)).isEmpty()) {
+                List<CompletableFuture<Void>> sends = window.stream().map(r -> deliver(r.batch())).toList();
+                for (int i = 0; i < window.size(); i++) {
+                    try {
+                        sends.get(i).get(replayInterval.toMillis() * 3, TimeUnit.MILLISECONDS);
+                    } catch (ExecutionException | TimeoutException ex) {
+                        return;
+                    }
+                    spool.ack(window.get(i));
+                }
+                log.info("Replayed {} spooled batches; {} left", window.size(), spool.pending());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            log.error("Spool replay failed", ex);
+        }
+    }
+
+    private CompletableFuture<Void> deliver(NewsBatchEvent batch) {
         String key = batch.sourceId() == null ? "unknown" : batch.sourceId();
-        kafkaTemplate.send(topic, key, batch);
-        if (!batch.ok()) {
-            log.warn("Published error batch for {}: {}", key, batch.error());
-        } else {
-            log.info("Published {} items for {} (fetchId={})", batch.items() == null ? 0 : batch.items().size(), key, batch.fetchId());
+        List<NewsItemPayload> items = batch.items() == null ? List.of() : batch.items();
+
+        CompletableFuture<Void> delivery = itemEvents ? sendItems(key, batch, items) : send(topic, key, batch);
+
+        return delivery.whenComplete((ok, ex) -> {
+            if (ex != null) {
+                log.error("Kafka did not accept batch for {} (fetchId={}): {}", key, batch.fetchId(), ex.toString());
+            } else if (!batch.ok()) {
+                log.warn("Published error batch for {}: {}", key, batch.error());
+            } else {
+                log.info("Published {} items for {} (fetchId={})", items.size(), key, batch.fetchId());
+            }
+        });
+    }
+
+    private CompletableFuture<Void> sendItems(String key, NewsBatchEvent batch, List<NewsItemPayload> items) {
+        List<CompletableFuture<Void>> sends = new ArrayList<>(items.size() + 1);
+        if (batch.ok()) {
+            for (NewsItemPayload it : items) {
+                sends.add(send(itemsTopic, ItemKey.of(it), it));
+            }
+        }
+        FetchCompleteEvent done = new FetchCompleteEvent(batch.fetchId(), batch.fetchedAt(), batch.sourceId(),
+                batch.sourceName(), batch.sourceUrl(), batch.ok() ? items.size() : 0, batch.error());
+        sends.add(send(fetchCompleteTopic, key, done));
+        return CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new));
+    }
+
+    private CompletableFuture<Void> send(String topic, String key, Object value) {
+        try {
+            return kafkaTemplate.send(topic, key, value).thenApply(r -> null);
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
         }
     }
 }
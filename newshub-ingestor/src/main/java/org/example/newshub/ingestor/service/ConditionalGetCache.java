@@ -0,0 +1,51 @@
+package org.example.newshub.ingestor.service;
+
+import org.springframework.stereotype.Component;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class ConditionalGetCache {
+
+    private final Map<String, Validators> byUrl = new ConcurrentHashMap<>();
+
+    public Validators get(String url) {
+        return url == null ? null : byUrl.get(url);
+    }
+
+    public void put(String url, Validators validators) {
+        if (url == null || validators == null) return;
+        byUrl.put(url, validators);
+    }
+
+    public void evict(String url) {
+        if (url != null) byUrl.remove(url);
+    }
+
+    public int size() {
+        return byUrl.size();
+    }
+
+    static String hash(byte[] body) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    public record Validators(String etag, String lastModified, String bodyHash) {
+
+        Validators merge(String newEtag, String newLastModified) {
+            return new Validators(
+                    newEtag != null ? newEtag : etag,
+                    newLastModified != null ? newLastModified : lastModified,
+                    bodyHash
+            );
+        }
+    }
+}
@@ -1,39 +1,323 @@
 package org.example.newshub.ingestor.service;
 
 import java.time.*;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.util.List;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Exception-free parsing of feed dates. The shape of the string picks one hand-written parser
+ * (RFC 822/1123 incl. Russian month and day names, ISO-8601, or dotted {@code dd.MM.yyyy});
+ * a string that does not fit it returns null instead of throwing. Dates without a zone are
+ * read in the system zone.
+ */
 final class DateParsing {
 
+    enum Format { RFC_822, ISO_8601, DOTTED }
+
+    private static final Map<String, Integer> MONTHS = new HashMap<>();
+    private static final Map<String, Integer> ZONES = new HashMap<>();
+
+    static {
+        String[] en = {"jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct", "nov", "dec"};
+        String[] ru = {"янв", "фев", "мар", "апр", "мая", "июн", "июл", "авг", "сен", "окт", "ноя", "дек"};
+        for (int i = 0; i < 12; i++) {
+            MONTHS.put(en[i], i + 1);
+            MONTHS.put(ru[i], i + 1);
+        }
+        MONTHS.put("май", 5);
+
+        for (String z : new String[]{"GMT", "UT", "UTC", "Z"}) ZONES.put(z, 0);
+        ZONES.put("EST", -5); ZONES.put("EDT", -4);
+        ZONES.put("CST", -6); ZONES.put("CDT", -5);
+        ZONES.put("MST", -7); ZONES.put("MDT", -6);
+        ZONES.put("PST", -8); ZONES.put("PDT", -7);
+        ZONES.put("MSK", 3); ZONES.put("МСК", 3);
+    }
+
     private DateParsing() {}
 
     static Instant tryParseInstant(String raw) {
-        if (raw == null) return null;
-        String s = raw.trim();
-        if (s.isEmpty()) return null;
+        String s = normalize(raw);
+        if (s == null) return null;
+        Format f = sniff(s);
+        return f == null ? null : parseAs(f, s);
+    }
+
+    /** Remembers which format each feed uses, so its next dates skip sniffing. */
+    static final class FormatCache {
 
-        try {
-            return ZonedDateTime.parse(s, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
-        } catch (DateTimeParseException ignored) {}
+        private final Map<String, Format> byFeed = new ConcurrentHashMap<>();
 
-        try {
-            return Instant.parse(s);
-        } catch (DateTimeParseException ignored) {}
+        Instant parse(String feedId, String raw) {
+            String s = normalize(raw);
+            if (s == null) return null;
 
-        List<DateTimeFormatter> fmts = List.of(
-                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
-                DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss")
-        );
+            Format known = feedId == null ? null : byFeed.get(feedId);
+            if (known != null) {
+                Instant t = parseAs(known, s);
+                if (t != null) return t;
+            }
 
-        for (DateTimeFormatter f : fmts) {
-            try {
-                LocalDateTime ldt = LocalDateTime.parse(s, f);
-                return ldt.atZone(ZoneId.systemDefault()).toInstant();
-            } catch (DateTimeParseException ignored) {}
+            Format f = sniff(s);
+            if (f == null || f == known) return null;
+            Instant t = parseAs(f, s);
+            if (t != null && feedId != null) byFeed.put(feedId, f);
+            return t;
         }
 
+        Format format(String feedId) {
+            return byFeed.get(feedId);
+        }
+    }
+
+    private static String normalize(String raw) {
+        if (raw == null) return null;
+        String s = raw.strip();
+        return s.isEmpty() ? null : s;
+    }
+
+    static Format sniff(String s) {
+        char c = s.charAt(0);
+        if (Character.isLetter(c)) return Format.RFC_822;
+        int n = 0;
+        while (n < s.length() && isDigit(s.charAt(n))) n++;
+        if (n == s.length()) return null;
+        char next = s.charAt(n);
+        if (n == 4 && next == '-') return Format.ISO_8601;
+        if ((n == 1 || n == 2) && next == '.') return Format.DOTTED;
+        if ((n == 1 || n == 2) && (next == ' ' || next == '-')) return Format.RFC_822;
         return null;
     }
+
+    static Instant parseAs(Format f, String s) {
+        Scanner sc = new Scanner(s);
+        return switch (f) {
+            case RFC_822 -> rfc822(sc);
+            case ISO_8601 -> iso8601(sc);
+            case DOTTED -> dotted(sc);
+        };
+    }
+
+    /** {@code [Tue, ]3 Dec 2024 14:05[:00] GMT}, RFC 822 two-digit years, {@code Вт, 03 дек 2024 ...}, {@code 3 декабря 2024 г. в 14:05}. */
+    private static Instant rfc822(Scanner sc) {
+        if (sc.letter()) {
+            sc.word();
+            sc.skip('.');
+            sc.skip(',');
+            sc.spaces();
+        }
+        int day = sc.digits(1, 2);
+        if (day < 0) return null;
+        if (!sc.skip('-') && !sc.spaces()) return null;
+
+        Integer month = sc.letter() ? MONTHS.get(sc.word().toLowerCase(Locale.ROOT)) : null;
+        if (month == null) return null;
+        sc.skip('.');
+        if (!sc.skip('-') && !sc.spaces()) return null;
+
+        int start = sc.pos;
+        int year = sc.digits(2, 4);
+        if (year < 0) return null;
+        int yearDigits = sc.pos - start;
+        if (yearDigits == 3) return null;
+        if (yearDigits == 2) year += year < 50 ? 2000 : 1900;
+
+        // Russian long form: "2024 г., 14:05" / "2024 г. в 14:05"
+        sc.spaces();
+        while (sc.letter() && !sc.atZone()) {
+            String w = sc.word();
+            if (!w.equals("г") && !w.equals("в")) return null;
+            sc.skip('.');
+            sc.spaces();
+        }
+        sc.skip(',');
+        sc.spaces();
+
+        if (sc.end()) return at(year, month, day, 0, 0, 0, 0, null);
+        return time(sc, year, month, day);
+    }
+
+    /** {@code 2024-12-03[T| ]14:05[:00[.123]][Z|+03:00|+0300| GMT]} or a bare date. */
+    private static Instant iso8601(Scanner sc) {
+        int year = sc.digits(4, 4);
+        if (year < 0 || !sc.skip('-')) return null;
+        int month = sc.digits(2, 2);
+        if (month < 0 || !sc.skip('-')) return null;
+        int day = sc.digits(2, 2);
+        if (day < 0) return null;
+
+        if (sc.end()) return at(year, month, day, 0, 0, 0, 0, null);
+        if (!sc.skip('T') && !sc.skip('t') && !sc.spaces()) return null;
+        return time(sc, year, month, day);
+    }
+
+    /** {@code 03.12.2024[ 14:05[:00]]}, common on Russian sites. */
+    private static Instant dotted(Scanner sc) {
+        int day = sc.digits(1, 2);
+        if (day < 0 || !sc.skip('.')) return null;
+        int month = sc.digits(1, 2);
+        if (month < 0 || !sc.skip('.')) return null;
+        int year = sc.digits(4, 4);
+        if (year < 0) return null;
+
+        if (sc.end()) return at(year, month, day, 0, 0, 0, 0, null);
+        sc.skip(',');
+        if (!sc.spaces()) return null;
+        return time(sc, year, month, day);
+    }
+
+    private static Instant time(Scanner sc, int year, int month, int day) {
+        int hour = sc.digits(1, 2);
+        if (hour < 0 || !sc.skip(':')) return null;
+        int minute = sc.digits(2, 2);
+        if (minute < 0) return null;
+        int second = 0;
+        int nano = 0;
+        if (sc.skip(':')) {
+            second = sc.digits(2, 2);
+            if (second < 0) return null;
+            if (sc.skip('.') || sc.skip(',')) {
+                nano = sc.fraction();
+                if (nano < 0) return null;
+            }
+        }
+
+        sc.spaces();
+        if (sc.end()) return at(year, month, day, hour, minute, second, nano, null);
+
+        Integer offsetSeconds = sc.zone();
+        if (offsetSeconds == null) return null;
+        sc.spaces();
+        // a trailing "(MSK)" style comment repeats the zone
+        if (sc.skip('(')) {
+            while (!sc.end() && !sc.skip(')')) sc.pos++;
+            sc.spaces();
+        }
+        if (!sc.end()) return null;
+        return at(year, month, day, hour, minute, second, nano, offsetSeconds);
+    }
+
+    private static Instant at(int year, int month, int day, int hour, int minute, int second, int nano, Integer offsetSeconds) {
+        if (month < 1 || month > 12 || day < 1 || day > YearMonth.of(year, month).lengthOfMonth()) return null;
+        if (hour > 23 || minute > 59 || second > 60) return null;
+        if (second == 60) second = 59;
+
+        LocalDateTime local = LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        if (offsetSeconds == null) return local.atZone(ZoneId.systemDefault()).toInstant();
+        return local.toInstant(ZoneOffset.ofTotalSeconds(offsetSeconds));
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static final class Scanner {
+        final String s;
+        int pos;
+
+        Scanner(String s) {
+            this.s = s;
+        }
+
+        boolean end() {
+            return pos >= s.length();
+        }
+
+        boolean skip(char c) {
+            if (pos < s.length() && s.charAt(pos) == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        /** Skips whitespace; true if there was any. */
+        boolean spaces() {
+            int start = pos;
+            while (pos < s.length() && Character.isWhitespace(s.charAt(pos))) pos++;
+            return pos > start;
+        }
+
+        boolean letter() {
+            return pos < s.length() && Character.isLetter(s.charAt(pos));
+        }
+
+        /** Letters up to the next non-letter; month names are matched on their first three. */
+        String word() {
+            int start = pos;
+            while (pos < s.length() && Character.isLetter(s.charAt(pos))) pos++;
+            String w = s.substring(start, pos);
+            return w.length() > 3 && MONTHS.containsKey(w.substring(0, 3).toLowerCase(Locale.ROOT)) ? w.substring(0, 3) : w;
+        }
+
+        /** A number of {@code min..max} digits, or -1. */
+        int digits(int min, int max) {
+            int start = pos;
+            int v = 0;
+            while (pos < s.length() && pos - start < max && isDigit(s.charAt(pos))) {
+                v = v * 10 + (s.charAt(pos++) - '0');
+            }
+            if (pos - start < min || (pos < s.length() && isDigit(s.charAt(pos)))) {
+                pos = start;
+                return -1;
+            }
+            return v;
+        }
+
+        /** Fraction digits as nanoseconds; digits past the ninth are dropped. */
+        int fraction() {
+            int start = pos;
+            int nano = 0;
+            int scale = 100_000_000;
+            while (pos < s.length() && isDigit(s.charAt(pos))) {
+                nano += (s.charAt(pos++) - '0') * scale;
+                scale /= 10;
+            }
+            return pos == start ? -1 : nano;
+        }
+
+        boolean atZone() {
+            int end = pos;
+            while (end < s.length() && Character.isLetter(s.charAt(end))) end++;
+            return ZONES.containsKey(s.substring(pos, end).toUpperCase(Locale.ROOT));
+        }
+
+        /** {@code Z}, {@code GMT}, {@code MSK}, {@code +03:00}, {@code +0300}, {@code +03}, {@code GMT+3}; offset in seconds or null. */
+        Integer zone() {
+            int base = 0;
+            if (letter()) {
+                int start = pos;
+                while (pos < s.length() && Character.isLetter(s.charAt(pos))) pos++;
+                Integer hours = ZONES.get(s.substring(start, pos).toUpperCase(Locale.ROOT));
+                if (hours == null) return null;
+                base = hours * 3600;
+                if (end() || (s.charAt(pos) != '+' && s.charAt(pos) != '-')) return base;
+            }
+
+            int sign;
+            if (skip('+')) sign = 1;
+            else if (skip('-') || skip('−')) sign = -1;
+            else return null;
+
+            int start = pos;
+            int hh = digits(1, 4);
+            if (hh < 0) return null;
+            int mm = 0;
+            if (pos - start > 2) {
+                // +0300
+                if (pos - start != 4) return null;
+                mm = hh % 100;
+                hh = hh / 100;
+            } else if (skip(':')) {
+                mm = digits(2, 2);
+                if (mm < 0) return null;
+            }
+            if (hh > 18 || mm > 59) return null;
+            int total = base + sign * (hh * 3600 + mm * 60);
+            // a named zone plus an offset can still land outside what ZoneOffset accepts
+            return Math.abs(total) > 18 * 3600 ? null : total;
+        }
+    }
 }
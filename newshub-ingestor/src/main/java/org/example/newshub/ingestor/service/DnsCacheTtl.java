@@ -0,0 +1,18 @@
+package org.example.newshub.ingestor.service;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Applies {@code newshub.fetch.dns-cache-ttl-seconds} through {@link HttpClientConfig#cacheDns}
+ * as soon as the configuration is read, before any bean resolves a host. Registered in
+ * {@code META-INF/spring.factories}.
+ */
+public class DnsCacheTtl implements EnvironmentPostProcessor {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        HttpClientConfig.cacheDns(environment.getProperty("newshub.fetch.dns-cache-ttl-seconds", "300"));
+    }
+}
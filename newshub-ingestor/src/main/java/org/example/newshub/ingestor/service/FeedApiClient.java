@@ -1,29 +1,109 @@
 package org.example.newshub.ingestor.service;
 
 import org.example.newshub.common.dto.FeedDto;
+import org.example.newshub.common.kafka.FeedConfigEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClient;
 
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.Objects;
 
+/**
+ * The selected feeds, cached with the version the API sends as ETag. A list pushed over the
+ * feed-config topic is used as is until {@code feed-list-max-age-seconds} have passed; after
+ * that, or without the topic, the API is asked with {@code If-None-Match} and usually answers
+ * 304. When the API cannot be reached the last known list is used.
+ */
 @Service
 public class FeedApiClient {
 
+    private static final Logger log = LoggerFactory.getLogger(FeedApiClient.class);
+
     private final RestClient rest;
+    private final Duration maxAge;
+    private final Clock clock;
+
+    private volatile Snapshot snapshot;
 
+    @Autowired
     public FeedApiClient(
             @Value("${newshub.api.base-url:http://localhost:8080}") String baseUrl,
-            RestClient.Builder builder
+            RestClient.Builder builder,
+            @Value("${newshub.api.feed-config.enabled:true}") boolean pushed,
+            @Value("${newshub.api.feed-list-max-age-seconds:300}") long maxAgeSeconds
     ) {
+        this(baseUrl, builder, pushed, maxAgeSeconds, Clock.systemUTC());
+    }
+
+    FeedApiClient(String baseUrl, RestClient.Builder builder, boolean pushed, long maxAgeSeconds, Clock clock) {
         this.rest = builder.baseUrl(baseUrl).build();
+        // without pushes nothing would tell us about a change, so every call revalidates
+        this.maxAge = pushed ? Duration.ofSeconds(Math.max(0, maxAgeSeconds)) : Duration.ZERO;
+        this.clock = clock;
     }
 
     public List<FeedDto> selectedFeeds() {
-        return rest.get()
+        Snapshot s = snapshot;
+        Instant now = clock.instant();
+        if (s != null && now.isBefore(s.checkedAt().plus(maxAge))) return s.feeds();
+        try {
+            return revalidate(s, now).feeds();
+        } catch (RuntimeException ex) {
+            if (s == null) throw ex;
+            log.warn("Failed to get selected feeds from API, using version {}: {}", s.version(), ex.getMessage());
+            return s.feeds();
+        }
+    }
+
+    /** Takes a list pushed over the feed-config topic. */
+    public void accept(FeedConfigEvent event) {
+        if (event == null || event.selected() == null) return;
+        Snapshot s = snapshot;
+        if (s == null || !Objects.equals(s.version(), event.version())) {
+            log.info("Selected feeds changed to version {} ({} feeds)", event.version(), event.selected().size());
+        }
+        snapshot = new Snapshot(event.version(), List.copyOf(event.selected()), clock.instant());
+    }
+
+    private Snapshot revalidate(Snapshot s, Instant now) {
+        ResponseEntity<List<FeedDto>> resp = rest.get()
                 .uri("/api/feeds/selected")
+                .headers(h -> {
+                    if (s != null && s.version() != null) h.setIfNoneMatch(quoted(s.version()));
+                })
                 .retrieve()
-                .body(new ParameterizedTypeReference<List<FeedDto>>() {});
+                .toEntity(new ParameterizedTypeReference<List<FeedDto>>() {});
+
+        Snapshot next;
+        if (resp.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && s != null) {
+            next = new Snapshot(s.version(), s.feeds(), now);
+        } else {
+            List<FeedDto> feeds = resp.getBody() == null ? List.of() : List.copyOf(resp.getBody());
+            next = new Snapshot(unquoted(resp.getHeaders().getETag()), feeds, now);
+        }
+        snapshot = next;
+        return next;
+    }
+
+    private static String quoted(String version) {
+        return "\"" + version + "\"";
     }
+
+    private static String unquoted(String etag) {
+        if (etag == null) return null;
+        String e = etag.startsWith("W/") ? etag.substring(2) : etag;
+        return e.length() >= 2 && e.startsWith("\"") && e.endsWith("\"") ? e.substring(1, e.length() - 1) : e;
+    }
+
+    private record Snapshot(String version, List<FeedDto> feeds, Instant checkedAt) {}
 }
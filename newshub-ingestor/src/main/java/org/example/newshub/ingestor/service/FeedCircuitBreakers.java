@@ -0,0 +1,118 @@
+package org.example.newshub.ingestor.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Per-feed circuit breaker. After {@code failureThreshold} consecutive failures a feed's
+ * circuit opens and the feed is not fetched until the backoff expires; the backoff doubles
+ * with every further failure up to {@code maxBackoff}. Once it expires a single half-open
+ * probe is let through: success closes the circuit, failure re-opens it.
+ */
+@Component
+public class FeedCircuitBreakers {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final Clock clock;
+
+    private final Map<String, Breaker> breakers = new HashMap<>();
+
+    @Autowired
+    public FeedCircuitBreakers(
+            @Value("${newshub.fetch.breaker.failure-threshold:3}") int failureThreshold,
+            @Value("${newshub.fetch.breaker.base-backoff-seconds:60}") long baseBackoffSeconds,
+            @Value("${newshub.fetch.breaker.max-backoff-seconds:21600}") long maxBackoffSeconds
+    ) {
+        this(failureThreshold, baseBackoffSeconds, maxBackoffSeconds, Clock.systemUTC());
+    }
+
+    FeedCircuitBreakers(int failureThreshold, long baseBackoffSeconds, long maxBackoffSeconds, Clock clock) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.baseBackoff = Duration.ofSeconds(Math.max(1, baseBackoffSeconds));
+        this.maxBackoff = Duration.ofSeconds(Math.max(this.baseBackoff.getSeconds(), maxBackoffSeconds));
+        this.clock = clock;
+    }
+
+    /** Whether the feed may be fetched now; moves an expired open circuit to half-open. */
+    public synchronized boolean allow(String feedId) {
+        Breaker b = breakers.get(feedId);
+        if (b == null || b.state == State.CLOSED) return true;
+
+        Instant now = clock.instant();
+        boolean expired = b.state == State.OPEN && !now.isBefore(b.openUntil);
+        // a probe that never reported back (feed dropped, run aborted) must not pin the circuit
+        boolean probeLost = b.state == State.HALF_OPEN && !now.isBefore(b.probeStartedAt.plus(baseBackoff));
+        if (expired || probeLost) {
+            b.state = State.HALF_OPEN;
+            b.probeStartedAt = now;
+            return true;
+        }
+        return false;
+    }
+
+    public synchronized void recordSuccess(String feedId) {
+        breakers.remove(feedId);
+    }
+
+    public synchronized void recordFailure(String feedId, String error) {
+        Breaker b = breakers.computeIfAbsent(feedId, id -> new Breaker());
+        b.consecutiveFailures++;
+        b.lastError = error;
+        b.lastFailureAt = clock.instant();
+
+        if (b.state == State.HALF_OPEN || b.consecutiveFailures >= failureThreshold) {
+            b.state = State.OPEN;
+            b.openUntil = b.lastFailureAt.plus(backoffFor(b.consecutiveFailures));
+        }
+    }
+
+    public synchronized State state(String feedId) {
+        Breaker b = breakers.get(feedId);
+        return b == null ? State.CLOSED : b.state;
+    }
+
+    public synchronized List<BreakerView> snapshot() {
+        List<BreakerView> out = new ArrayList<>();
+        breakers.forEach((id, b) -> out.add(new BreakerView(id, b.state, b.consecutiveFailures, b.lastFailureAt, b.openUntil, b.lastError)));
+        out.sort(Comparator.comparing(BreakerView::feedId));
+        return out;
+    }
+
+    public synchronized void reset(String feedId) {
+        breakers.remove(feedId);
+    }
+
+    private Duration backoffFor(int failures) {
+        int exponent = Math.max(0, Math.min(30, failures - failureThreshold));
+        long seconds = baseBackoff.getSeconds() << exponent;
+        return seconds <= 0 || seconds > maxBackoff.getSeconds() ? maxBackoff : Duration.ofSeconds(seconds);
+    }
+
+    public record BreakerView(
+            String feedId,
+            State state,
+            int consecutiveFailures,
+            Instant lastFailureAt,
+            Instant openUntil,
+            String lastError
+    ) {}
+
+    private static final class Breaker {
+        State state = State.CLOSED;
+        int consecutiveFailures;
+        Instant lastFailureAt;
+        Instant openUntil;
+        Instant probeStartedAt;
+        String lastError;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.newshub.ingestor.service;
+
+import org.example.newshub.common.dto.FeedDto;
+import org.example.newshub.common.kafka.NewsBatchEvent;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Outcome of polling one feed. {@code batch} is {@code null} when the feed was unchanged
+ * since the previous poll; otherwise it is the batch to publish (possibly an error batch).
+ * {@code validators} are those of the body a batch was read from, saved for the next poll
+ * only once the batch is delivered (see {@link FeedFetcher#settled}).
+ */
+public record FeedFetch(FeedDto feed, NewsBatchEvent batch, Hints hints, ConditionalGetCache.Validators validators) {
+
+    public FeedFetch(FeedDto feed, NewsBatchEvent batch, Hints hints) {
+        this(feed, batch, hints, null);
+    }
+
+    public boolean unchanged() {
+        return batch == null;
+    }
+
+    public boolean failed() {
+        return batch != null && !batch.ok();
+    }
+
+    /** Publisher-side polling hints: RSS {@code <ttl>}, {@code <skipHours>} and HTTP {@code max-age}. */
+    public record Hints(Duration ttl, Set<Integer> skipHours, Duration maxAge) {
+        public static final Hints NONE = new Hints(null, Set.of(), null);
+    }
+}
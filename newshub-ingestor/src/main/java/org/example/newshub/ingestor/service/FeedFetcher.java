@@ -0,0 +1,238 @@
+package org.example.newshub.ingestor.service;
+
+import com.apptasticsoftware.rssreader.Channel;
+import com.apptasticsoftware.rssreader.Item;
+import com.apptasticsoftware.rssreader.RssReader;
+import org.example.newshub.common.dto.FeedDto;
+import org.example.newshub.common.kafka.NewsBatchEvent;
+import org.example.newshub.common.kafka.NewsItemPayload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Stream;
+
+@Component
+public class FeedFetcher {
+
+    private static final Logger log = LoggerFactory.getLogger(FeedFetcher.class);
+    private static final int KNOWN_RUN_TO_STOP = 3;
+
+    private final RssReader reader = new RssReader();
+    private final DateParsing.FormatCache dateFormats = new DateParsing.FormatCache();
+    private final FeedHttpClient http;
+    private final ConditionalGetCache validatorCache;
+    private final FeedWatermarks watermarks;
+    private final PayloadNormalizer normalizer;
+    private final WebSubSubscriptions websub;
+
+    public FeedFetcher(FeedHttpClient http, ConditionalGetCache validatorCache, FeedWatermarks watermarks,
+                       PayloadNormalizer normalizer, WebSubSubscriptions websub) {
+        this.http = http;
+        this.validatorCache = validatorCache;
+        this.watermarks = watermarks;
+        this.normalizer = normalizer;
+        this.websub = websub;
+    }
+
+    /**
+     * Polls one feed. Never throws: failures come back as an error batch, and a feed that is
+     * unchanged since the previous poll (304 Not Modified or a byte-identical body) comes back
+     * without a batch, so nothing needs to be parsed or published. A changed feed's validators
+     * come back with its batch for {@link #settled}.
+     */
+    public FeedFetch fetch(String fetchId, Instant fetchedAt, FeedDto feed) {
+        try {
+            ConditionalGetCache.Validators cached = validatorCache.get(feed.url());
+            FeedHttpClient.FeedResponse resp = http.get(feed.url(), cached);
+
+            if (resp.notModified()) {
+                if (cached != null) validatorCache.put(feed.url(), cached.merge(resp.etag(), resp.lastModified()));
+                log.debug("Feed {} not modified", feed.id());
+                websub.polled(feed);
+                return new FeedFetch(feed, null, new FeedFetch.Hints(null, Set.of(), resp.maxAge()));
+            }
+
+            String bodyHash = resp.hash();
+            ConditionalGetCache.Validators fresh = new ConditionalGetCache.Validators(resp.etag(), resp.lastModified(), bodyHash);
+            if (cached != null && bodyHash.equals(cached.bodyHash())) {
+                validatorCache.put(feed.url(), fresh);
+                log.debug("Feed {} body unchanged", feed.id());
+                websub.polled(feed);
+                return new FeedFetch(feed, null, new FeedFetch.Hints(null, Set.of(), resp.maxAge()));
+            }
+
+            Channel[] channel = new Channel[1];
+            NewsBatchEvent batch;
+            try (InputStream content = resp.content()) {
+                batch = parse(fetchId, fetchedAt, feed, content, channel);
+            }
+            if (websub.enabled()) websub.polled(feed, resp.head(WebSubSubscriptions.SNIFF_BYTES));
+            return new FeedFetch(feed, batch, hints(channel[0], resp.maxAge()), fresh);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return new FeedFetch(feed, errorBatch(fetchId, fetchedAt, feed, "fetch interrupted"), FeedFetch.Hints.NONE);
+        } catch (Exception ex) {
+            String error = ex.getMessage() == null || ex.getMessage().isBlank() ? ex.getClass().getSimpleName() : ex.getMessage();
+            return new FeedFetch(feed, errorBatch(fetchId, fetchedAt, feed, error), FeedFetch.Hints.NONE);
+        }
+    }
+
+    /**
+     * Saves the validators of a fetched body once its batch is delivered. A batch that was not
+     * clears the feed's validators instead, so the next poll reads the feed in full rather than
+     * taking a 304 or an identical body as nothing new.
+     */
+    public void settled(FeedFetch fetch, boolean delivered) {
+        if (fetch.validators() == null) return;
+        if (delivered) {
+            validatorCache.put(fetch.feed().url(), fetch.validators());
+        } else {
+            validatorCache.evict(fetch.feed().url());
+        }
+    }
+
+    /** Parses feed content a WebSub hub pushed, the same way as a polled body. */
+    public NewsBatchEvent parsePushed(String fetchId, Instant fetchedAt, FeedDto feed, byte[] body) {
+        try {
+            return parse(fetchId, fetchedAt, feed, new ByteArrayInputStream(body), new Channel[1]);
+        } catch (Exception ex) {
+            String error = ex.getMessage() == null || ex.getMessage().isBlank() ? ex.getClass().getSimpleName() : ex.getMessage();
+            return errorBatch(fetchId, fetchedAt, feed, error);
+        }
+    }
+
+    private NewsBatchEvent parse(String fetchId, Instant fetchedAt, FeedDto feed, InputStream body, Channel[] channel) {
+        List<NewsItemPayload> items;
+        try (Stream<Item> read = reader.read(body)) {
+            items = readNew(feed, read.peek(it -> { if (channel[0] == null) channel[0] = it.getChannel(); }).iterator());
+        }
+        return new NewsBatchEvent(
+                fetchId,
+                fetchedAt,
+                feed.id(),
+                feed.name(),
+                feed.url(),
+                items,
+                null
+        );
+    }
+
+    private static FeedFetch.Hints hints(Channel channel, Duration maxAge) {
+        if (channel == null) return new FeedFetch.Hints(null, Set.of(), maxAge);
+
+        Duration ttl = null;
+        String rawTtl = channel.getTtl().orElse("").trim();
+        if (!rawTtl.isEmpty()) {
+            try {
+                long minutes = Long.parseLong(rawTtl);
+                if (minutes > 0) ttl = Duration.ofMinutes(minutes);
+            } catch (NumberFormatException ignored) {}
+        }
+
+        Set<Integer> skipHours = new HashSet<>();
+        for (Integer h : channel.getSkipHours()) {
+            if (h != null && h >= 0 && h <= 24) skipHours.add(h % 24);
+        }
+        return new FeedFetch.Hints(ttl, Set.copyOf(skipHours), maxAge);
+    }
+
+    /**
+     * Builds payloads for the items above the feed's watermark. Known items are skipped before
+     * any payload is built, and a run of {@value #KNOWN_RUN_TO_STOP} known items ends the read, as
+     * everything below them is older still; a pinned old item or two at the top does not. Items
+     * that are not newest first drop the cutoff for the rest of the read and for later reads.
+     */
+    private List<NewsItemPayload> readNew(FeedDto feed, Iterator<Item> read) {
+        FeedWatermarks.Watermark cutoff = watermarks.cutoff(feed.id());
+        List<NewsItemPayload> items = new ArrayList<>();
+        Instant previous = null;
+        boolean ordered = true;
+        int knownRun = 0;
+
+        while (read.hasNext()) {
+            Item it = read.next();
+            String dateRaw = it.getPubDate().orElse("");
+            Instant publishedAt = dateFormats.parse(feed.id(), dateRaw);
+            if (publishedAt != null) {
+                if (previous != null && publishedAt.isAfter(previous)) {
+                    ordered = false;
+                    cutoff = null;
+                }
+                previous = publishedAt;
+            }
+
+            String guid = guidOf(feed, it, dateRaw);
+            if (cutoff != null && cutoff.covers(publishedAt, guid)) {
+                if (++knownRun >= KNOWN_RUN_TO_STOP) break;
+                continue;
+            }
+            knownRun = 0;
+            items.add(toPayload(feed, it, dateRaw, publishedAt, guid));
+        }
+
+        watermarks.recordOrder(feed.id(), ordered);
+        return items;
+    }
+
+    private static String guidOf(FeedDto feed, Item it, String dateRaw) {
+        String guid = it.getGuid().orElse("");
+        if (!guid.isBlank()) return guid;
+        String link = it.getLink().orElse("");
+        String base = feed.id() + "|" + (link.isBlank() ? "" : link) + "|" + it.getTitle().orElse("без названия") + "|" + dateRaw;
+        return UUID.nameUUIDFromBytes(base.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private NewsItemPayload toPayload(FeedDto feed, Item it, String dateRaw, Instant publishedAt, String guid) {
+        String rawTitle = it.getTitle().orElse("без названия");
+        String title = Objects.requireNonNullElse(normalizer.title(it.getTitle().orElse(null)), "без названия");
+        String desc  = Objects.requireNonNullElse(normalizer.description(it.getDescription().orElse(null)), "нет описания");
+        String link  = it.getLink().orElse("");
+        link = link.isBlank() ? null : link;
+
+        String category = null;
+        try {
+            var cats = it.getCategories();
+            if (cats != null && !cats.isEmpty()) {
+                category = cats.get(0);
+                if (category != null && category.isBlank()) category = null;
+            }
+        } catch (Exception ignored) {}
+
+        Instant addedAt = Instant.now();
+
+        return new NewsItemPayload(
+                title,
+                desc,
+                link,
+                category,
+                dateRaw,
+                publishedAt,
+                addedAt,
+                guid,
+                feed.id(),
+                feed.name(),
+                feed.url(),
+                // keys stay those of the raw title, as before titles were normalized
+                rawTitle.equals(title) ? null : rawTitle
+        );
+    }
+
+    static NewsBatchEvent errorBatch(String fetchId, Instant fetchedAt, FeedDto feed, String error) {
+        return new NewsBatchEvent(
+                fetchId,
+                fetchedAt,
+                feed.id(),
+                feed.name(),
+                feed.url(),
+                List.of(),
+                error
+        );
+    }
+}
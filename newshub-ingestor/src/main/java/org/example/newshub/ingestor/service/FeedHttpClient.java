@@ -0,0 +1,253 @@
+package org.example.newshub.ingestor.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+@Component
+public class FeedHttpClient {
+
+    static final String USER_AGENT = "NewsHub-Ingestor/2.3";
+    private static final Pattern MAX_AGE = Pattern.compile("(?:^|[,\\s])max-age\\s*=\\s*\"?(\\d+)", Pattern.CASE_INSENSITIVE);
+
+    private final HttpClient client;
+    private final Duration readTimeout;
+    private final Duration bodyTimeout;
+    private final int maxBodyBytes;
+
+    @Autowired
+    public FeedHttpClient(
+            HttpClient client,
+            @Value("${newshub.fetch.timeouts.read-seconds:10}") long readSeconds,
+            @Value("${newshub.fetch.timeouts.body-seconds:20}") long bodySeconds,
+            @Value("${newshub.fetch.max-body-bytes:5242880}") int maxBodyBytes
+    ) {
+        this.client = client;
+        this.readTimeout = Duration.ofSeconds(Math.max(1, readSeconds));
+        this.bodyTimeout = Duration.ofSeconds(Math.max(readTimeout.getSeconds(), bodySeconds));
+        this.maxBodyBytes = Math.max(1024, maxBodyBytes);
+    }
+
+    FeedHttpClient(long connectSeconds, long readSeconds, long bodySeconds, int maxBodyBytes) {
+        this(HttpClientConfig.build(connectSeconds), readSeconds, bodySeconds, maxBodyBytes);
+    }
+
+    /**
+     * Connect and read timeouts bound the time to the response headers; {@code bodyTimeout}
+     * bounds the whole exchange, so a host that trickles its body cannot hold a fetch slot.
+     * Bodies larger than {@code maxBodyBytes} are rejected, compressed ones when they arrive and
+     * again while {@link FeedResponse#content()} decodes them.
+     */
+    public FeedResponse get(String url, ConditionalGetCache.Validators validators) throws IOException, InterruptedException {
+        HttpRequest.Builder req = HttpRequest.newBuilder(URI.create(url.trim()))
+                .GET()
+                .timeout(readTimeout)
+                .header("User-Agent", USER_AGENT)
+                .header("Accept", "application/rss+xml, application/atom+xml, application/xml;q=0.9, text/xml;q=0.8, */*;q=0.5")
+                .header("Accept-Encoding", "gzip, deflate");
+
+        if (validators != null) {
+            if (validators.etag() != null) req.header("If-None-Match", validators.etag());
+            if (validators.lastModified() != null) req.header("If-Modified-Since", validators.lastModified());
+        }
+
+        CompletableFuture<HttpResponse<byte[]>> exchange =
+                client.sendAsync(req.build(), info -> new LimitedBodySubscriber(maxBodyBytes));
+        HttpResponse<byte[]> resp;
+        try {
+            resp = exchange.get(bodyTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            exchange.cancel(true);
+            throw new HttpTimeoutException("no complete response within " + bodyTimeout.getSeconds() + "s");
+        } catch (InterruptedException ex) {
+            exchange.cancel(true);
+            throw ex;
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof IOException io) throw io;
+            throw new IOException(cause == null ? ex.getMessage() : cause.getMessage(), cause);
+        }
+
+        String etag = resp.headers().firstValue("ETag").orElse(null);
+        String lastModified = resp.headers().firstValue("Last-Modified").orElse(null);
+        Duration maxAge = maxAge(resp.headers().firstValue("Cache-Control").orElse(null));
+
+        int status = resp.statusCode();
+        if (status == 304) {
+            return new FeedResponse(status, null, null, maxBodyBytes, etag, lastModified, maxAge);
+        }
+        if (status < 200 || status >= 300) {
+            throw new IOException("HTTP " + status + " from " + url);
+        }
+
+        String encoding = resp.headers().firstValue("Content-Encoding").orElse("").trim().toLowerCase(Locale.ROOT);
+        return new FeedResponse(status, resp.body(), encoding, maxBodyBytes, etag, lastModified, maxAge);
+    }
+
+    static Duration maxAge(String cacheControl) {
+        if (cacheControl == null) return null;
+        Matcher m = MAX_AGE.matcher(cacheControl);
+        if (!m.find()) return null;
+        try {
+            long seconds = Long.parseLong(m.group(1));
+            return seconds > 0 ? Duration.ofSeconds(seconds) : null;
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    /** {@code body} is as the server sent it, still compressed when {@code encoding} says so. */
+    public record FeedResponse(int status, byte[] body, String encoding, int maxBodyBytes,
+                               String etag, String lastModified, Duration maxAge) {
+        public boolean notModified() {
+            return status == 304;
+        }
+
+        /** The decoded body, decompressed as it is read rather than into another buffer. */
+        public InputStream content() throws IOException {
+            InputStream raw = new ByteArrayInputStream(body);
+            InputStream decoded = switch (encoding == null ? "" : encoding) {
+                case "gzip", "x-gzip" -> new GZIPInputStream(raw, 8192);
+                // servers disagree on whether deflate means zlib-wrapped or raw
+                case "deflate" -> new InflaterInputStream(raw, new Inflater(!zlibWrapped(body)), 8192);
+                default -> raw;
+            };
+            return decoded == raw ? raw : new LimitedInputStream(decoded, maxBodyBytes);
+        }
+
+        /** Up to {@code max} decoded bytes from the start of the body. */
+        public byte[] head(int max) throws IOException {
+            try (InputStream in = content()) {
+                return in.readNBytes(max);
+            }
+        }
+
+        /**
+         * Identifies the content. A gzip header carries a timestamp that servers compressing
+         * on the fly change on every response, so it is left out.
+         */
+        public String hash() {
+            boolean gzip = "gzip".equals(encoding) || "x-gzip".equals(encoding);
+            return ConditionalGetCache.hash(gzip && body.length > 10 ? Arrays.copyOfRange(body, 10, body.length) : body);
+        }
+
+        private static boolean zlibWrapped(byte[] b) {
+            return b.length >= 2 && (b[0] & 0x0F) == 8 && (((b[0] & 0xFF) << 8) | (b[1] & 0xFF)) % 31 == 0;
+        }
+    }
+
+    /**
+     * Fails a read once more than {@code max} bytes came out of a decompressing stream, and
+     * fails {@code close()} after that too: the feed parser swallows read errors.
+     */
+    private static final class LimitedInputStream extends FilterInputStream {
+
+        private final int max;
+        private long count;
+
+        LimitedInputStream(InputStream in, int max) {
+            super(in);
+            this.max = max;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) count(n);
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            if (count > max) throw exceeded();
+        }
+
+        private void count(int n) throws IOException {
+            count += n;
+            if (count > max) throw exceeded();
+        }
+
+        private IOException exceeded() {
+            return new IOException("response exceeds " + max + " bytes");
+        }
+    }
+
+    /** Collects the body but gives up (and cancels the exchange) once it grows past the limit. */
+    private static final class LimitedBodySubscriber implements HttpResponse.BodySubscriber<byte[]> {
+
+        private final int maxBytes;
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final CompletableFuture<byte[]> result = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+
+        LimitedBodySubscriber(int maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public CompletionStage<byte[]> getBody() {
+            return result;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            if (result.isDone()) return;
+            for (ByteBuffer b : buffers) {
+                if (out.size() + b.remaining() > maxBytes) {
+                    subscription.cancel();
+                    result.completeExceptionally(new IOException("response exceeds " + maxBytes + " bytes"));
+                    return;
+                }
+                byte[] chunk = new byte[b.remaining()];
+                b.get(chunk);
+                out.write(chunk, 0, chunk.length);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            result.complete(out.toByteArray());
+        }
+    }
+}
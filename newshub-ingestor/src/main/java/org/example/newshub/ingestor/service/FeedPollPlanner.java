@@ -0,0 +1,217 @@
+package org.example.newshub.ingestor.service;
+
+import org.example.newshub.common.dto.FeedDto;
+import org.example.newshub.common.kafka.NewsItemPayload;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Per-feed polling plan. Each feed's interval follows an exponentially weighted estimate of
+ * how many new items it publishes per second, aiming at {@code targetNewItems} new items per
+ * poll, and is bounded by min/max and by the publisher's own hints (RSS ttl, HTTP max-age,
+ * skipHours). Feeds a WebSub hub pushes are only polled at its safety interval. Feeds are kept
+ * in a priority queue ordered by their next poll time.
+ */
+@Component
+public class FeedPollPlanner {
+
+    private static final double RATE_ALPHA = 0.3;
+
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final Duration initialInterval;
+    private final double targetNewItems;
+    private final double jitter;
+    private final WebSubSubscriptions websub;
+    private final Clock clock;
+
+    private final Map<String, FeedState> states = new HashMap<>();
+    private final PriorityQueue<FeedState> queue = new PriorityQueue<>(Comparator.comparing(s -> s.nextPollAt));
+
+    @Autowired
+    public FeedPollPlanner(
+            WebSubSubscriptions websub,
+            @Value("${newshub.refresh.schedule.min-interval-seconds:60}") long minIntervalSeconds,
+            @Value("${newshub.refresh.schedule.max-interval-seconds:3600}") long maxIntervalSeconds,
+            @Value("${newshub.refresh.schedule.initial-interval-seconds:300}") long initialIntervalSeconds,
+            @Value("${newshub.refresh.schedule.target-new-items:2}") double targetNewItems,
+            @Value("${newshub.refresh.schedule.jitter:0.1}") double jitter
+    ) {
+        this(minIntervalSeconds, maxIntervalSeconds, initialIntervalSeconds, targetNewItems, jitter, websub, Clock.systemUTC());
+    }
+
+    FeedPollPlanner(long minIntervalSeconds, long maxIntervalSeconds, long initialIntervalSeconds,
+                    double targetNewItems, double jitter, Clock clock) {
+        this(minIntervalSeconds, maxIntervalSeconds, initialIntervalSeconds, targetNewItems, jitter,
+                new WebSubSubscriptions("", 86400, 360, clock), clock);
+    }
+
+    FeedPollPlanner(long minIntervalSeconds, long maxIntervalSeconds, long initialIntervalSeconds,
+                    double targetNewItems, double jitter, WebSubSubscriptions websub, Clock clock) {
+        this.minInterval = Duration.ofSeconds(Math.max(1, minIntervalSeconds));
+        this.maxInterval = Duration.ofSeconds(Math.max(this.minInterval.getSeconds(), maxIntervalSeconds));
+        this.initialInterval = clamp(Duration.ofSeconds(initialIntervalSeconds), minInterval, maxInterval);
+        this.targetNewItems = targetNewItems > 0 ? targetNewItems : 1;
+        this.jitter = Math.max(0, Math.min(0.5, jitter));
+        this.websub = websub;
+        this.clock = clock;
+    }
+
+    /**
+     * Syncs the plan with the current feed list and returns the feeds whose poll is due.
+     * Returned feeds are provisionally rescheduled one interval ahead, so a poll that never
+     * reports back does not drop the feed from the plan.
+     */
+    public synchronized List<FeedDto> due(List<FeedDto> feeds) {
+        Instant now = clock.instant();
+
+        Set<String> ids = new HashSet<>();
+        for (FeedDto f : feeds == null ? List.<FeedDto>of() : feeds) {
+            ids.add(f.id());
+            FeedState st = states.get(f.id());
+            if (st == null) {
+                st = new FeedState(f, initialInterval);
+                st.nextPollAt = now;
+                states.put(f.id(), st);
+                queue.add(st);
+            } else {
+                st.feed = f;
+            }
+        }
+        states.values().removeIf(st -> {
+            if (ids.contains(st.feed.id())) return false;
+            queue.remove(st);
+            return true;
+        });
+
+        List<FeedDto> due = new ArrayList<>();
+        while (!queue.isEmpty() && !queue.peek().nextPollAt.isAfter(now)) {
+            FeedState st = queue.poll();
+            due.add(st.feed);
+            st.nextPollAt = now.plus(st.interval);
+            queue.add(st);
+        }
+        return due;
+    }
+
+    public synchronized void record(FeedFetch fetch) {
+        if (fetch == null || fetch.feed() == null) return;
+        Instant now = clock.instant();
+
+        FeedState st = states.computeIfAbsent(fetch.feed().id(), id -> new FeedState(fetch.feed(), initialInterval));
+        if (!fetch.failed()) {
+            int fresh = countNew(st, fetch);
+            if (st.lastPollAt != null) {
+                double elapsed = Math.max(1, Duration.between(st.lastPollAt, now).toMillis() / 1000.0);
+                st.rate = RATE_ALPHA * (fresh / elapsed) + (1 - RATE_ALPHA) * st.rate;
+            }
+            st.lastPollAt = now;
+            st.hints = fetch.hints() == null ? FeedFetch.Hints.NONE : mergeHints(st.hints, fetch.hints());
+            st.interval = intervalFor(st);
+        }
+
+        // the interval keeps adapting underneath, for when the feed falls back to polling
+        Duration next = websub.pushed(st.feed.id()) ? websub.safetyPoll() : st.interval;
+        queue.remove(st);
+        st.nextPollAt = avoidSkipHours(now.plus(jittered(next)), st.hints.skipHours());
+        queue.add(st);
+    }
+
+    public synchronized Optional<Instant> nextPollAt(String feedId) {
+        FeedState st = states.get(feedId);
+        return st == null ? Optional.empty() : Optional.of(st.nextPollAt);
+    }
+
+    public synchronized Optional<Duration> interval(String feedId) {
+        FeedState st = states.get(feedId);
+        return st == null ? Optional.empty() : Optional.of(st.interval);
+    }
+
+    private int countNew(FeedState st, FeedFetch fetch) {
+        if (fetch.unchanged()) return 0;
+
+        List<NewsItemPayload> items = fetch.batch().items() == null ? List.of() : fetch.batch().items();
+        Set<String> guids = new HashSet<>();
+        for (NewsItemPayload it : items) {
+            if (it.guid() != null) guids.add(it.guid());
+        }
+
+        int fresh = 0;
+        if (st.lastGuids != null) {
+            for (String g : guids) {
+                if (!st.lastGuids.contains(g)) fresh++;
+            }
+        }
+        st.lastGuids = guids;
+        return fresh;
+    }
+
+    private Duration intervalFor(FeedState st) {
+        double seconds = st.rate > 0 ? targetNewItems / st.rate : maxInterval.getSeconds();
+        Duration interval = Duration.ofSeconds((long) Math.min(seconds, maxInterval.getSeconds()));
+
+        FeedFetch.Hints h = st.hints;
+        if (h.ttl() != null && h.ttl().compareTo(interval) > 0) interval = h.ttl();
+        if (h.maxAge() != null && h.maxAge().compareTo(interval) > 0) interval = h.maxAge();
+        return clamp(interval, minInterval, maxInterval);
+    }
+
+    private Duration jittered(Duration interval) {
+        if (jitter == 0) return interval;
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-jitter, jitter);
+        return Duration.ofMillis((long) (interval.toMillis() * factor));
+    }
+
+    /** RSS skipHours are GMT hours in which aggregators should not poll. */
+    static Instant avoidSkipHours(Instant at, Set<Integer> skipHours) {
+        if (skipHours == null || skipHours.isEmpty() || skipHours.size() >= 24) return at;
+        Instant t = at;
+        while (skipHours.contains(t.atZone(ZoneOffset.UTC).getHour())) {
+            t = t.truncatedTo(ChronoUnit.HOURS).plus(Duration.ofHours(1));
+        }
+        return t;
+    }
+
+    private static FeedFetch.Hints mergeHints(FeedFetch.Hints previous, FeedFetch.Hints current) {
+        // A 304 carries no channel, so keep the ttl and skipHours learned from the last full body.
+        boolean hasChannel = current.ttl() != null || !current.skipHours().isEmpty();
+        return new FeedFetch.Hints(
+                hasChannel ? current.ttl() : previous.ttl(),
+                hasChannel ? current.skipHours() : previous.skipHours(),
+                current.maxAge() != null ? current.maxAge() : previous.maxAge()
+        );
+    }
+
+    private static Duration clamp(Duration d, Duration min, Duration max) {
+        if (d.compareTo(min) < 0) return min;
+        if (d.compareTo(max) > 0) return max;
+        return d;
+    }
+
+    private final class FeedState {
+        FeedDto feed;
+        Duration interval;
+        double rate;
+        Instant lastPollAt;
+        Instant nextPollAt;
+        Set<String> lastGuids;
+        FeedFetch.Hints hints = FeedFetch.Hints.NONE;
+
+        FeedState(FeedDto feed, Duration interval) {
+            this.feed = feed;
+            this.interval = interval;
+            // prior: a feed starts out at the initial interval and adapts from there
+            this.rate = targetNewItems / interval.getSeconds();
+            this.nextPollAt = clock.instant().plus(interval);
+        }
+    }
+}
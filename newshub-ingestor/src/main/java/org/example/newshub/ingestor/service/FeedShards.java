@@ -0,0 +1,92 @@
+package org.example.newshub.ingestor.service;
+
+import org.apache.kafka.common.utils.Utils;
+import org.example.newshub.common.dto.FeedDto;
+import org.example.newshub.ingestor.kafka.KafkaShardMembership;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Which of the selected feeds this ingestor replica polls, so N replicas split the work instead
+ * of each fetching everything. {@code none} owns every feed (a single replica);
+ * {@code static} gives each of {@code count} replicas the feeds that rendezvous-hash to its
+ * {@code index}; {@code kafka} owns the feeds that hash to the partitions Kafka assigned this
+ * replica in {@link KafkaShardMembership}, and rebalances as replicas come and go.
+ */
+@Component
+public class FeedShards {
+
+    enum Mode { NONE, STATIC, KAFKA }
+
+    private final Mode mode;
+    private final int index;
+    private final int count;
+    private final KafkaShardMembership membership;
+
+    public FeedShards(
+            @Value("${newshub.shard.mode:none}") String mode,
+            @Value("${newshub.shard.index:0}") int index,
+            @Value("${newshub.shard.count:1}") int count,
+            Optional<KafkaShardMembership> membership
+    ) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.count = Math.max(1, count);
+        this.index = Math.floorMod(index, this.count);
+        this.membership = membership.orElse(null);
+        if (this.mode == Mode.KAFKA && this.membership == null) {
+            throw new IllegalStateException("newshub.shard.mode=kafka needs shard membership");
+        }
+    }
+
+    public List<FeedDto> owned(List<FeedDto> feeds) {
+        if (feeds == null || mode == Mode.NONE) return feeds;
+        return feeds.stream().filter(f -> owns(f.id())).toList();
+    }
+
+    public boolean owns(String feedId) {
+        return switch (mode) {
+            case NONE -> true;
+            case STATIC -> rendezvous(feedId, count) == index;
+            case KAFKA -> {
+                int partitions = membership.partitionCount();
+                yield partitions > 0 && membership.assigned().contains(partition(feedId, partitions));
+            }
+        };
+    }
+
+    /** The replica with the highest hash for the feed wins; adding one moves only 1/N of the feeds. */
+    static int rendezvous(String feedId, int replicas) {
+        long key = Utils.murmur2(bytes(feedId));
+        int best = 0;
+        long bestScore = Long.MIN_VALUE;
+        for (int r = 0; r < replicas; r++) {
+            long score = mix(key + (r + 1) * 0x9E3779B97F4A7C15L);
+            if (score > bestScore) {
+                bestScore = score;
+                best = r;
+            }
+        }
+        return best;
+    }
+
+    /** Same placement as Kafka's default partitioner for a record keyed by the feed id. */
+    static int partition(String feedId, int partitions) {
+        return Utils.toPositive(Utils.murmur2(bytes(feedId))) % partitions;
+    }
+
+    private static byte[] bytes(String feedId) {
+        return (feedId == null ? "" : feedId).getBytes(StandardCharsets.UTF_8);
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,102 @@
+package org.example.newshub.ingestor.service;
+
+import org.example.newshub.common.kafka.NewsBatchEvent;
+import org.example.newshub.common.kafka.NewsItemPayload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Per-feed high-watermark: the newest {@code publishedAt} delivered so far plus the GUIDs that
+ * carry exactly that timestamp. For a feed that lists its items newest first, the first item at
+ * or below the watermark means the rest of the feed is known, so {@link FeedFetcher} can stop
+ * parsing there. Feeds without dates or seen out of order get no cutoff and are read in full.
+ */
+@Component
+public class FeedWatermarks {
+
+    private final boolean enabled;
+    private final Duration maxFutureSkew;
+
+    private final Map<String, State> byFeed = new HashMap<>();
+
+    public FeedWatermarks(
+            @Value("${newshub.fetch.watermark.enabled:true}") boolean enabled,
+            @Value("${newshub.fetch.watermark.max-future-skew-minutes:60}") long maxFutureSkewMinutes
+    ) {
+        this.enabled = enabled;
+        this.maxFutureSkew = Duration.ofMinutes(Math.max(0, maxFutureSkewMinutes));
+    }
+
+    /** Where to stop reading {@code feedId}, or null to read it in full. */
+    public synchronized Watermark cutoff(String feedId) {
+        if (!enabled) return null;
+        State st = byFeed.get(feedId);
+        return st == null || !st.ordered || st.mark == null ? null : st.mark;
+    }
+
+    /**
+     * Records whether the dated items of the last read came newest first. Until a full read has
+     * shown that, or once any read shows otherwise, the feed gets no cutoff.
+     */
+    public synchronized void recordOrder(String feedId, boolean ordered) {
+        if (!enabled || feedId == null) return;
+        byFeed.computeIfAbsent(feedId, id -> new State()).ordered = ordered;
+    }
+
+    /**
+     * Moves the watermark up to the newest item of {@code batch}. Call this only once the batch is
+     * acknowledged, so a failed delivery is read again. Items dated too far in the future are
+     * ignored: one bad date must not hide everything published before it.
+     */
+    public synchronized void advance(NewsBatchEvent batch) {
+        if (!enabled || batch == null || !batch.ok() || batch.items() == null || batch.items().isEmpty()) return;
+
+        Instant limit = (batch.fetchedAt() == null ? Instant.now() : batch.fetchedAt()).plus(maxFutureSkew);
+        Instant newest = null;
+        Set<String> guids = new HashSet<>();
+        for (NewsItemPayload it : batch.items()) {
+            Instant t = it.publishedAt();
+            if (t == null || t.isAfter(limit) || it.guid() == null) continue;
+            int cmp = newest == null ? 1 : t.compareTo(newest);
+            if (cmp > 0) {
+                newest = t;
+                guids.clear();
+            }
+            if (cmp >= 0) guids.add(it.guid());
+        }
+        if (newest == null) return;
+
+        State st = byFeed.computeIfAbsent(batch.sourceId(), id -> new State());
+        Watermark old = st.mark;
+        int cmp = old == null ? 1 : newest.compareTo(old.newest());
+        if (cmp > 0) {
+            st.mark = new Watermark(newest, Set.copyOf(guids));
+        } else if (cmp == 0) {
+            guids.addAll(old.guids());
+            st.mark = new Watermark(newest, Set.copyOf(guids));
+        }
+    }
+
+    /** Forgets feeds that are no longer selected, so re-selecting one reads it in full again. */
+    public synchronized void retain(Collection<String> feedIds) {
+        byFeed.keySet().retainAll(new HashSet<>(feedIds));
+    }
+
+    public record Watermark(Instant newest, Set<String> guids) {
+        /** True if an item dated {@code publishedAt} with {@code guid} was already delivered; undated items never are. */
+        public boolean covers(Instant publishedAt, String guid) {
+            if (publishedAt == null) return false;
+            int cmp = publishedAt.compareTo(newest);
+            return cmp < 0 || (cmp == 0 && guids.contains(guid));
+        }
+    }
+
+    private static final class State {
+        boolean ordered;
+        Watermark mark;
+    }
+}
@@ -0,0 +1,53 @@
+package org.example.newshub.ingestor.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.net.http.HttpClient;
+import java.security.Security;
+import java.time.Duration;
+
+/**
+ * The one {@link HttpClient} the ingestor talks to feeds and WebSub hubs with, so keep-alive
+ * connections and HTTP/2 sessions are pooled across feeds and hub calls: many feeds share a
+ * host, and a reused connection skips the TCP and TLS handshakes. Plain {@code http://} feeds
+ * stay on HTTP/1.1; {@code https://} ones negotiate HTTP/2 through ALPN where the server offers it,
+ * unless {@code newshub.fetch.http2} is off (for servers or proxies whose HTTP/2 is broken).
+ */
+@Configuration
+public class HttpClientConfig {
+
+    private static final String DNS_TTL = "networkaddress.cache.ttl";
+
+    @Bean
+    HttpClient feedHttpClient(
+            @Value("${newshub.fetch.timeouts.connect-seconds:5}") long connectSeconds,
+            @Value("${newshub.fetch.http2:true}") boolean http2
+    ) {
+        return build(connectSeconds, http2);
+    }
+
+    static HttpClient build(long connectSeconds) {
+        return build(connectSeconds, true);
+    }
+
+    static HttpClient build(long connectSeconds, boolean http2) {
+        return HttpClient.newBuilder()
+                .version(http2 ? HttpClient.Version.HTTP_2 : HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(Math.max(1, connectSeconds)))
+                .build();
+    }
+
+    /**
+     * The JDK keeps successful lookups for 30 seconds unless told otherwise, so a refresh of
+     * feeds spread over a few hosts resolves them again every run. Has to run before the first
+     * lookup, since the JDK reads the setting once ({@link DnsCacheTtl} calls it with
+     * {@code newshub.fetch.dns-cache-ttl-seconds}); an explicit setting is left alone.
+     */
+    public static void cacheDns(String ttlSeconds) {
+        if (Security.getProperty(DNS_TTL) != null || ttlSeconds == null || ttlSeconds.isBlank()) return;
+        Security.setProperty(DNS_TTL, ttlSeconds.trim());
+    }
+}
@@ -2,13 +2,18 @@ package org.example.newshub.ingestor.service;
 
 import org.example.newshub.common.dto.FeedDto;
 import org.example.newshub.common.kafka.NewsBatchEvent;
+import org.example.newshub.ingestor.kafka.DeliveryTracker;
 import org.example.newshub.ingestor.kafka.NewsKafkaPublisher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 @Service
 public class IngestorService {
@@ -18,33 +23,130 @@ public class IngestorService {
     private final FeedApiClient feedApiClient;
     private final RssFetchService fetchService;
     private final NewsKafkaPublisher publisher;
+    private final SeenItems seenItems;
+    private final FeedWatermarks watermarks;
+    private final FeedShards shards;
+    private final WebSubSubscriptions websub;
 
-    public IngestorService(FeedApiClient feedApiClient, RssFetchService fetchService, NewsKafkaPublisher publisher) {
+    private final Duration ackTimeout;
+
+    public IngestorService(
+            FeedApiClient feedApiClient,
+            RssFetchService fetchService,
+            NewsKafkaPublisher publisher,
+            SeenItems seenItems,
+            FeedWatermarks watermarks,
+            FeedShards shards,
+            WebSubSubscriptions websub,
+            @Value("${newshub.kafka.ack-timeout-seconds:30}") long ackTimeoutSeconds
+    ) {
         this.feedApiClient = feedApiClient;
         this.fetchService = fetchService;
         this.publisher = publisher;
+        this.seenItems = seenItems;
+        this.watermarks = watermarks;
+        this.shards = shards;
+        this.websub = websub;
+        this.ackTimeout = Duration.ofSeconds(Math.max(1, ackTimeoutSeconds));
     }
 
     public RefreshRun refreshOnce() {
-        String fetchId = UUID.randomUUID().toString();
+        return refreshOnce(new RefreshJob(UUID.randomUUID().toString()));
+    }
 
+    /** Refreshes this replica's share of the selected feeds under the job's fetchId, reporting per-feed progress to the job. */
+    public RefreshRun refreshOnce(RefreshJob job) {
         List<FeedDto> feeds;
         try {
             feeds = feedApiClient.selectedFeeds();
         } catch (Exception ex) {
             log.error("Failed to get selected feeds from API", ex);
-            return new RefreshRun(fetchId, 0, "API error: " + ex.getMessage());
+            return new RefreshRun(job.fetchId(), 0, 0, 0, 0, 0, 0, 0, 0, "API error: " + ex.getMessage());
         }
 
-        List<NewsBatchEvent> batches = fetchService.fetch(fetchId, feeds);
-        for (NewsBatchEvent b : batches) {
-            publisher.publish(b);
+        List<String> ids = feeds.stream().map(FeedDto::id).toList();
+        seenItems.retain(ids);
+        watermarks.retain(ids);
+        websub.retain(ids);
+        List<FeedDto> owned = shards.owned(feeds);
+        int unowned = feeds.size() - owned.size();
+        if (unowned > 0) log.info("Refresh {} covers {} of {} selected feeds; the rest belong to other replicas", job.fetchId(), owned.size(), feeds.size());
+        job.feeds(owned);
+        return refresh(job.fetchId(), owned, unowned, job::record);
+    }
+
+    public RefreshRun refreshFeeds(List<FeedDto> feeds) {
+        return refresh(UUID.randomUUID().toString(), feeds, 0, r -> {});
+    }
+
+    /** Refreshes the given feeds under the job's fetchId, reporting per-feed progress to the job. */
+    public RefreshRun refreshFeeds(RefreshJob job, List<FeedDto> feeds) {
+        job.feeds(feeds);
+        return refresh(job.fetchId(), feeds, 0, job::record);
+    }
+
+    private RefreshRun refresh(String fetchId, List<FeedDto> feeds, int unowned, Consumer<RssFetchService.FeedResult> progress) {
+        DeliveryTracker deliveries = new DeliveryTracker();
+        RssFetchService.FetchSummary summary = fetchService.fetch(fetchId, feeds, f -> deliveries.track(publishFetched(f)), progress);
+        DeliveryTracker.Deliveries d = deliveries.await(ackTimeout);
+
+        String error = d.failed() == 0 ? null : d.failed() + " of " + summary.batches() + " batches not acknowledged by Kafka";
+        if (d.spooled() > 0) log.warn("{}: {} of {} batches spooled while Kafka is unavailable", fetchId, d.spooled(), summary.batches());
+        return new RefreshRun(fetchId, summary.batches(), summary.unchanged(), summary.skipped(), summary.timedOut(),
+                unowned, d.acked(), d.spooled(), d.failed(), error);
+    }
+
+    /** Publishes content a WebSub hub pushed; the returned future completes once Kafka (or the spool) has it. */
+    public CompletableFuture<NewsKafkaPublisher.Delivery> publishPushed(NewsBatchEvent batch) {
+        return publishFresh(batch);
+    }
+
+    /**
+     * Publishes a polled feed's batch. The validators of the body it was read from are kept once
+     * Kafka or the spool has the batch, and dropped when neither does, so the next poll of the
+     * feed reads it in full instead of taking a 304 for items that never reached Kafka.
+     */
+    private CompletableFuture<NewsKafkaPublisher.Delivery> publishFetched(FeedFetch fetch) {
+        CompletableFuture<NewsKafkaPublisher.Delivery> delivery = publishFresh(fetch.batch());
+        if (delivery == null) {
+            // nothing to wait for: the run counts it as acknowledged
+            fetchService.settled(fetch, true);
+            return null;
         }
+        return delivery.whenComplete((d, ex) -> fetchService.settled(fetch, ex == null));
+    }
 
-        return new RefreshRun(fetchId, batches.size(), null);
+    /**
+     * Publishes only items not delivered before; they count as delivered, and the feed's
+     * watermark moves up, once Kafka acknowledges them. A spooled batch does neither: the spool
+     * delivers it once Kafka is back, and its items are offered again whenever the feed is read
+     * in full before a broker has confirmed them.
+     */
+    private CompletableFuture<NewsKafkaPublisher.Delivery> publishFresh(NewsBatchEvent batch) {
+        SeenItems.Fresh fresh = seenItems.filter(batch);
+        if (fresh.dropped() > 0) {
+            log.debug("{}: {} known items left out, {} to publish", batch.sourceId(), fresh.dropped(), fresh.keys().length);
+        }
+        CompletableFuture<NewsKafkaPublisher.Delivery> delivery = publisher.publish(fresh.batch());
+        if (delivery == null) return null;
+        return delivery.thenApply(d -> {
+            if (d == NewsKafkaPublisher.Delivery.ACKED) {
+                seenItems.markSeen(batch.sourceId(), fresh.keys());
+                watermarks.advance(batch);
+            }
+            return d;
+        });
     }
 
-    public record RefreshRun(String fetchId, int batches, String error) {
+    /**
+     * {@code timedOut > 0} marks a partial run: those feeds did not finish before the run deadline.
+     * {@code unowned} selected feeds were left to the other replicas' shards: with sharding on, a
+     * run refreshes only the feeds of the replica that ran it.
+     * {@code acked}/{@code failed} count batches the broker did or did not confirm; {@code spooled}
+     * ones are on local disk waiting for Kafka, delivered neither way yet.
+     */
+    public record RefreshRun(String fetchId, int batches, int unchanged, int skipped, int timedOut, int unowned,
+                             int acked, int spooled, int failed, String error) {
         public boolean ok() { return error == null || error.isBlank(); }
     }
 }
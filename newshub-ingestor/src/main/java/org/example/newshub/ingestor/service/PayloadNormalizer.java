@@ -0,0 +1,249 @@
+package org.example.newshub.ingestor.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns feed titles and descriptions into capped plain text before they are published: markup,
+ * scripts, styles and comments are dropped, entities decoded and whitespace collapsed. A capped
+ * description is the snippet the UI shows, so Kafka and the database no longer carry the HTML,
+ * images and tracking markup many feeds embed. Stripping stops once the cap is reached.
+ */
+@Component
+public class PayloadNormalizer {
+
+    private static final String ELLIPSIS = "…";
+    private static final Set<String> SKIPPED = Set.of("script", "style", "noscript", "iframe", "object", "svg", "template");
+    private static final Set<String> BLOCKS = Set.of(
+            "br", "p", "div", "li", "ul", "ol", "dl", "dt", "dd", "tr", "td", "th", "table", "blockquote", "pre",
+            "h1", "h2", "h3", "h4", "h5", "h6", "hr", "img", "figure", "figcaption", "section", "article", "header", "footer");
+    private static final Map<String, Character> ENTITIES = new HashMap<>();
+
+    static {
+        ENTITIES.put("amp", '&');
+        ENTITIES.put("lt", '<');
+        ENTITIES.put("gt", '>');
+        ENTITIES.put("quot", '"');
+        ENTITIES.put("apos", '\'');
+        ENTITIES.put("nbsp", ' ');
+        ENTITIES.put("laquo", '«');
+        ENTITIES.put("raquo", '»');
+        ENTITIES.put("ldquo", '“');
+        ENTITIES.put("rdquo", '”');
+        ENTITIES.put("bdquo", '„');
+        ENTITIES.put("lsquo", '‘');
+        ENTITIES.put("rsquo", '’');
+        ENTITIES.put("mdash", '—');
+        ENTITIES.put("ndash", '–');
+        ENTITIES.put("hellip", '…');
+        ENTITIES.put("copy", '©');
+        ENTITIES.put("reg", '®');
+        ENTITIES.put("trade", '™');
+        ENTITIES.put("deg", '°');
+        ENTITIES.put("middot", '·');
+        ENTITIES.put("bull", '•');
+        ENTITIES.put("times", '×');
+        ENTITIES.put("euro", '€');
+    }
+
+    private final boolean enabled;
+    private final int maxTitleChars;
+    private final int maxDescriptionChars;
+
+    public PayloadNormalizer(
+            @Value("${newshub.fetch.normalize.enabled:true}") boolean enabled,
+            @Value("${newshub.fetch.normalize.max-title-chars:300}") int maxTitleChars,
+            @Value("${newshub.fetch.normalize.max-description-chars:600}") int maxDescriptionChars
+    ) {
+        this.enabled = enabled;
+        this.maxTitleChars = Math.max(16, maxTitleChars);
+        this.maxDescriptionChars = Math.max(16, maxDescriptionChars);
+    }
+
+    /** Plain-text title, or null if nothing is left. */
+    public String title(String raw) {
+        return enabled ? normalize(raw, maxTitleChars) : raw;
+    }
+
+    /** Plain-text description snippet, or null if nothing is left. */
+    public String description(String raw) {
+        return enabled ? normalize(raw, maxDescriptionChars) : raw;
+    }
+
+    static String normalize(String raw, int max) {
+        if (raw == null) return null;
+        String text = plainText(raw, max);
+        return text.isEmpty() ? null : cap(text, max);
+    }
+
+    /**
+     * Markup-free text with whitespace collapsed. Stops a little past {@code limit} characters,
+     * which is enough for {@link #cap} to find a word boundary.
+     */
+    static String plainText(String html, int limit) {
+        int n = html.length();
+        int stopAt = limit + 1;
+        Text out = new Text(Math.min(n, stopAt + 1));
+        int i = 0;
+        while (i < n && out.length() <= stopAt) {
+            char c = html.charAt(i);
+            if (c == '<') {
+                i = tag(html, i, out);
+            } else if (c == '&') {
+                i = entity(html, i, out);
+            } else {
+                out.append(c);
+                i++;
+            }
+        }
+        return out.toString();
+    }
+
+    /** Cuts {@code text} to at most {@code max} characters, at a word boundary where there is one. */
+    static String cap(String text, int max) {
+        if (text.length() <= max) return text;
+        int cut = max - ELLIPSIS.length();
+        int space = text.lastIndexOf(' ', cut);
+        if (space > cut / 2) cut = space;
+        if (Character.isHighSurrogate(text.charAt(cut - 1))) cut--;
+        return text.substring(0, cut).stripTrailing() + ELLIPSIS;
+    }
+
+    /** Skips the markup starting at {@code i}; returns the index after it. */
+    private static int tag(String s, int i, Text out) {
+        int n = s.length();
+        if (s.startsWith("<!--", i)) {
+            int end = s.indexOf("-->", i + 4);
+            return end < 0 ? n : end + 3;
+        }
+
+        int p = i + 1;
+        boolean closing = p < n && s.charAt(p) == '/';
+        if (closing) p++;
+        if (p >= n || !(Character.isLetter(s.charAt(p)) || s.charAt(p) == '!' || s.charAt(p) == '?')) {
+            // a bare '<' in text, as in "a < b"
+            out.append('<');
+            return i + 1;
+        }
+
+        int nameStart = p;
+        while (p < n && (Character.isLetterOrDigit(s.charAt(p)) || s.charAt(p) == '-' || s.charAt(p) == ':')) p++;
+        String name = s.substring(nameStart, p).toLowerCase(Locale.ROOT);
+
+        int end = tagEnd(s, p);
+        if (BLOCKS.contains(name)) out.append(' ');
+        if (!closing && SKIPPED.contains(name) && !s.startsWith("/>", end - 2)) {
+            int close = indexOfIgnoreCase(s, "</" + name, end);
+            return close < 0 ? n : tagEnd(s, close + 2 + name.length());
+        }
+        return end;
+    }
+
+    /** Index after the {@code >} that closes a tag, skipping quoted attribute values. */
+    private static int tagEnd(String s, int p) {
+        char quote = 0;
+        for (int n = s.length(); p < n; p++) {
+            char c = s.charAt(p);
+            if (quote != 0) {
+                if (c == quote) quote = 0;
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+            } else if (c == '>') {
+                return p + 1;
+            }
+        }
+        return s.length();
+    }
+
+    /** Decodes the entity at {@code i}, or keeps the '&' when it is not one. */
+    private static int entity(String s, int i, Text out) {
+        int semi = i + 1;
+        int last = Math.min(s.length(), i + 12);
+        while (semi < last && s.charAt(semi) != ';') semi++;
+        if (semi >= last) {
+            out.append('&');
+            return i + 1;
+        }
+        String body = s.substring(i + 1, semi);
+        if (body.startsWith("#")) {
+            int cp = codePoint(body);
+            if (cp > 0) {
+                out.appendCodePoint(cp);
+                return semi + 1;
+            }
+        } else {
+            Character c = ENTITIES.get(body.toLowerCase(Locale.ROOT));
+            if (c != null) {
+                out.append(c);
+                return semi + 1;
+            }
+        }
+        out.append('&');
+        return i + 1;
+    }
+
+    private static int codePoint(String body) {
+        boolean hex = body.length() > 1 && (body.charAt(1) == 'x' || body.charAt(1) == 'X');
+        String digits = body.substring(hex ? 2 : 1);
+        if (digits.isEmpty()) return -1;
+        int cp = 0;
+        for (int k = 0; k < digits.length(); k++) {
+            int d = Character.digit(digits.charAt(k), hex ? 16 : 10);
+            if (d < 0) return -1;
+            cp = cp * (hex ? 16 : 10) + d;
+            if (cp > Character.MAX_CODE_POINT) return -1;
+        }
+        if (cp == 0 || (cp >= Character.MIN_SURROGATE && cp <= Character.MAX_SURROGATE)) return -1;
+        return Character.isISOControl(cp) ? ' ' : cp;
+    }
+
+    private static int indexOfIgnoreCase(String s, String needle, int from) {
+        for (int p = from, last = s.length() - needle.length(); p <= last; p++) {
+            if (s.regionMatches(true, p, needle, 0, needle.length())) return p;
+        }
+        return -1;
+    }
+
+    /** A builder that collapses whitespace runs into one space and trims both ends. */
+    private static final class Text {
+        private final StringBuilder sb;
+        private boolean pendingSpace;
+
+        Text(int capacity) {
+            this.sb = new StringBuilder(capacity);
+        }
+
+        void append(char c) {
+            if (c <= ' ' || (c >= 0x7F && (c <= 0x9F || Character.isSpaceChar(c)))) {
+                pendingSpace = true;
+                return;
+            }
+            if (pendingSpace && !sb.isEmpty()) sb.append(' ');
+            pendingSpace = false;
+            sb.append(c);
+        }
+
+        void appendCodePoint(int cp) {
+            if (Character.isBmpCodePoint(cp)) {
+                append((char) cp);
+            } else {
+                append(Character.highSurrogate(cp));
+                sb.append(Character.lowSurrogate(cp));
+            }
+        }
+
+        int length() {
+            return sb.length();
+        }
+
+        @Override
+        public String toString() {
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package org.example.newshub.ingestor.service;
+
+import org.example.newshub.common.dto.FeedDto;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * State of one refresh run as seen by status polling. Written by the job thread, read by
+ * request threads, so every accessor is synchronized.
+ */
+public class RefreshJob {
+
+    public enum State { QUEUED, RUNNING, DONE, FAILED }
+
+    private final String fetchId;
+    private final Instant submittedAt;
+    private final Map<String, RssFetchService.FeedResult> feeds = new LinkedHashMap<>();
+
+    private State state = State.QUEUED;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private IngestorService.RefreshRun run;
+
+    public RefreshJob(String fetchId) {
+        this.fetchId = fetchId;
+        this.submittedAt = Instant.now();
+    }
+
+    public String fetchId() {
+        return fetchId;
+    }
+
+    synchronized void started() {
+        state = State.RUNNING;
+        startedAt = Instant.now();
+    }
+
+    /** Registers the feeds of this run, all pending until their outcome is reported. */
+    synchronized void feeds(List<FeedDto> selected) {
+        for (FeedDto f : selected) {
+            feeds.put(f.id(), new RssFetchService.FeedResult(f.id(), RssFetchService.Outcome.PENDING, 0, null));
+        }
+    }
+
+    synchronized void record(RssFetchService.FeedResult result) {
+        feeds.put(result.feedId(), result);
+    }
+
+    synchronized void finished(IngestorService.RefreshRun run) {
+        this.run = run;
+        state = run.ok() ? State.DONE : State.FAILED;
+        finishedAt = Instant.now();
+    }
+
+    synchronized boolean succeededWithin(Duration window, Instant now) {
+        return state == State.DONE && !window.isZero() && now.isBefore(finishedAt.plus(window));
+    }
+
+    synchronized boolean isFinished() {
+        return state == State.DONE || state == State.FAILED;
+    }
+
+    public synchronized View view() {
+        List<RssFetchService.FeedResult> list = new ArrayList<>(feeds.values());
+        int settled = (int) list.stream().filter(r -> r.outcome() != RssFetchService.Outcome.PENDING).count();
+        return new View(fetchId, state, submittedAt, startedAt, finishedAt, list.size(), settled, run, list);
+    }
+
+    public record View(
+            String fetchId,
+            State state,
+            Instant submittedAt,
+            Instant startedAt,
+            Instant finishedAt,
+            int totalFeeds,
+            int settledFeeds,
+            IngestorService.RefreshRun result,
+            List<RssFetchService.FeedResult> feeds
+    ) {}
+}
@@ -0,0 +1,144 @@
+package org.example.newshub.ingestor.service;
+
+import jakarta.annotation.PreDestroy;
+import org.example.newshub.common.dto.FeedDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Runs manual refreshes in the background. Submitting returns the job at once; at most
+ * {@code maxConcurrent} jobs run at the same time and further submissions are refused.
+ * The last {@code retained} jobs stay available for status polling.
+ * <p>
+ * With {@code coalesce} on, refreshes are single-flight: a trigger that arrives while a job
+ * is in flight joins that job, and one arriving within {@code minInterval} of a successful
+ * job gets that job back, so upstream load does not grow with the number of clients.
+ * Scheduled refreshes run as jobs too, so a trigger arriving during one joins it as well.
+ */
+@Service
+public class RefreshJobs {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshJobs.class);
+
+    private final IngestorService ingestor;
+    private final ExecutorService executor;
+    private final int maxConcurrent;
+    private final int retained;
+    private final boolean coalesce;
+    private final Duration minInterval;
+
+    private final Map<String, RefreshJob> jobs = new LinkedHashMap<>();
+    private int running;
+    private RefreshJob latest;
+    private RefreshJob scheduled;
+
+    public RefreshJobs(
+            IngestorService ingestor,
+            @Value("${newshub.refresh.jobs.max-concurrent:2}") int maxConcurrent,
+            @Value("${newshub.refresh.jobs.retained:50}") int retained,
+            @Value("${newshub.refresh.jobs.coalesce:true}") boolean coalesce,
+            @Value("${newshub.refresh.jobs.min-interval-seconds:0}") long minIntervalSeconds
+    ) {
+        this.ingestor = ingestor;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.retained = Math.max(this.maxConcurrent, retained);
+        this.coalesce = coalesce;
+        this.minInterval = Duration.ofSeconds(Math.max(0, minIntervalSeconds));
+        this.executor = Executors.newFixedThreadPool(this.maxConcurrent, new CustomizableThreadFactory("refresh-job-"));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts a refresh in the background or joins the one in flight; returns empty when
+     * {@code maxConcurrent} jobs are already running.
+     */
+    public synchronized Optional<Submission> submit() {
+        if (coalesce && scheduled != null && !scheduled.isFinished()) return Optional.of(new Submission(scheduled, true));
+        if (coalesce && latest != null) {
+            if (!latest.isFinished()) return Optional.of(new Submission(latest, true));
+            if (latest.succeededWithin(minInterval, Instant.now())) return Optional.of(new Submission(latest, true));
+        }
+        if (running >= maxConcurrent) return Optional.empty();
+
+        RefreshJob job = register();
+        latest = job;
+        executor.execute(() -> run(job, () -> ingestor.refreshOnce(job)));
+        return Optional.of(new Submission(job, false));
+    }
+
+    /**
+     * Refreshes the {@code due} feeds on the calling thread as a job that triggers arriving
+     * meanwhile join; returns empty, without refreshing, while another job is in flight.
+     */
+    public Optional<IngestorService.RefreshRun> runScheduled(List<FeedDto> due) {
+        RefreshJob job;
+        synchronized (this) {
+            if (running > 0) return Optional.empty();
+            job = register();
+            scheduled = job;
+        }
+        return Optional.of(run(job, () -> ingestor.refreshFeeds(job, due)));
+    }
+
+    /** Whether a manual or scheduled refresh is queued or running. */
+    public synchronized boolean inFlight() {
+        return running > 0;
+    }
+
+    public synchronized Optional<RefreshJob> find(String fetchId) {
+        return Optional.ofNullable(jobs.get(fetchId));
+    }
+
+    private RefreshJob register() {
+        RefreshJob job = new RefreshJob(UUID.randomUUID().toString());
+        jobs.put(job.fetchId(), job);
+        evictFinished();
+        running++;
+        return job;
+    }
+
+    private IngestorService.RefreshRun run(RefreshJob job, Supplier<IngestorService.RefreshRun> refresh) {
+        IngestorService.RefreshRun run;
+        try {
+            job.started();
+            run = refresh.get();
+            job.finished(run);
+            log.info("Refresh job {} finished: batches={}, acked={}, spooled={}, failed={}, unchanged={}, skipped={}, timedOut={}, unowned={}, error={}",
+                    run.fetchId(), run.batches(), run.acked(), run.spooled(), run.failed(), run.unchanged(), run.skipped(), run.timedOut(),
+                    run.unowned(), run.error());
+        } catch (Exception ex) {
+            log.error("Refresh job {} failed", job.fetchId(), ex);
+            run = new IngestorService.RefreshRun(job.fetchId(), 0, 0, 0, 0, 0, 0, 0, 0, ex.toString());
+            job.finished(run);
+        } finally {
+            synchronized (this) {
+                running--;
+            }
+        }
+        return run;
+    }
+
+    /** {@code joined} is true when the trigger was coalesced into an existing job. */
+    public record Submission(RefreshJob job, boolean joined) {}
+
+    private void evictFinished() {
+        Iterator<RefreshJob> it = jobs.values().iterator();
+        while (jobs.size() > retained && it.hasNext()) {
+            if (it.next().isFinished()) it.remove();
+        }
+    }
+}
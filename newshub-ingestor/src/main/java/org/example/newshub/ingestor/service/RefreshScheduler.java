@@ -1,35 +1,91 @@
 package org.example.newshub.ingestor.service;
 
+import org.example.newshub.common.dto.FeedDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
 @Component
 public class RefreshScheduler {
 
     private static final Logger log = LoggerFactory.getLogger(RefreshScheduler.class);
 
-    private final IngestorService ingestor;
+    private final FeedApiClient feedApiClient;
+    private final FeedPollPlanner planner;
+    private final RefreshJobs jobs;
+    private final SeenItems seenItems;
+    private final FeedWatermarks watermarks;
+    private final FeedShards shards;
+    private final WebSubSubscriptions websub;
     private final boolean enabled;
+    private final Duration feedListTtl;
+
+    private List<FeedDto> feeds;
+    private Instant feedsLoadedAt;
 
     public RefreshScheduler(
-            IngestorService ingestor,
-            @Value("${newshub.refresh.schedule.enabled:false}") boolean enabled
+            FeedApiClient feedApiClient,
+            FeedPollPlanner planner,
+            RefreshJobs jobs,
+            SeenItems seenItems,
+            FeedWatermarks watermarks,
+            FeedShards shards,
+            WebSubSubscriptions websub,
+            @Value("${newshub.refresh.schedule.enabled:false}") boolean enabled,
+            @Value("${newshub.refresh.schedule.feed-list-ttl-seconds:60}") long feedListTtlSeconds
     ) {
-        this.ingestor = ingestor;
+        this.feedApiClient = feedApiClient;
+        this.planner = planner;
+        this.jobs = jobs;
+        this.seenItems = seenItems;
+        this.watermarks = watermarks;
+        this.shards = shards;
+        this.websub = websub;
         this.enabled = enabled;
+        this.feedListTtl = Duration.ofSeconds(Math.max(0, feedListTtlSeconds));
     }
 
-    @Scheduled(fixedDelayString = "${newshub.refresh.schedule.fixed-delay-seconds:300}000")
+    @Scheduled(fixedDelayString = "${newshub.refresh.schedule.tick-seconds:15}000")
     public void tick() {
         if (!enabled) return;
-        var r = ingestor.refreshOnce();
-        if (!r.ok()) {
-            log.warn("Scheduled refresh failed: {}", r.error());
-        } else {
-            log.info("Scheduled refresh done: fetchId={}, batches={}", r.fetchId(), r.batches());
+        // a manual refresh already polls every feed and reschedules it in the planner
+        if (jobs.inFlight()) return;
+
+        List<FeedDto> current = currentFeeds();
+        if (current == null) return;
+
+        // ownership can move between ticks as replicas join or leave
+        // feeds a WebSub hub pushes are planned at its safety interval
+        List<FeedDto> due = planner.due(shards.owned(current));
+        if (due.isEmpty()) return;
+
+        // registered as a job, so manual triggers arriving meanwhile join this run
+        jobs.runScheduled(due).filter(r -> !r.ok()).ifPresent(r ->
+                log.warn("Scheduled refresh of {} due feeds failed: {}", due.size(), r.error()));
+    }
+
+    private List<FeedDto> currentFeeds() {
+        Instant now = Instant.now();
+        if (feeds != null && feedsLoadedAt != null && now.isBefore(feedsLoadedAt.plus(feedListTtl))) {
+            return feeds;
+        }
+        try {
+            feeds = feedApiClient.selectedFeeds();
+            feedsLoadedAt = now;
+            List<String> ids = feeds.stream().map(FeedDto::id).toList();
+            seenItems.retain(ids);
+            watermarks.retain(ids);
+            websub.retain(ids);
+        } catch (Exception ex) {
+            // keep polling the last known list while the API is unavailable
+            log.warn("Failed to get selected feeds from API: {}", ex.getMessage());
         }
+        return feeds;
     }
 }
@@ -1,98 +1,277 @@
 package org.example.newshub.ingestor.service;
 
-import com.apptasticsoftware.rssreader.Item;
-import com.apptasticsoftware.rssreader.RssReader;
+import jakarta.annotation.PreDestroy;
 import org.example.newshub.common.dto.FeedDto;
 import org.example.newshub.common.kafka.NewsBatchEvent;
-import org.example.newshub.common.kafka.NewsItemPayload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
+import java.net.URI;
+import java.time.Duration;
 import java.time.Instant;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
 @Service
 public class RssFetchService {
 
-    private final RssReader reader = new RssReader();
+    private static final Logger log = LoggerFactory.getLogger(RssFetchService.class);
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(200);
+
+    private final FeedFetcher fetcher;
+    private final FeedPollPlanner planner;
+    private final FeedCircuitBreakers breakers;
+    private final ExecutorService executor;
+    private final int perHostConcurrency;
+    private final int queueCapacity;
+    private final Duration runTimeout;
+
+    public RssFetchService(
+            FeedFetcher fetcher,
+            FeedPollPlanner planner,
+            FeedCircuitBreakers breakers,
+            @Value("${newshub.fetch.max-concurrency:8}") int maxConcurrency,
+            @Value("${newshub.fetch.per-host-concurrency:2}") int perHostConcurrency,
+            @Value("${newshub.fetch.queue-capacity:4}") int queueCapacity,
+            @Value("${newshub.fetch.timeouts.run-seconds:60}") long runTimeoutSeconds
+    ) {
+        this.fetcher = fetcher;
+        this.planner = planner;
+        this.breakers = breakers;
+        this.executor = Executors.newFixedThreadPool(Math.max(1, maxConcurrency), new CustomizableThreadFactory("rss-fetch-"));
+        this.perHostConcurrency = Math.max(1, perHostConcurrency);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.runTimeout = Duration.ofSeconds(Math.max(1, runTimeoutSeconds));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
 
     public List<NewsBatchEvent> fetch(String fetchId, List<FeedDto> selectedFeeds) {
-        Instant fetchedAt = Instant.now();
+        if (selectedFeeds == null || selectedFeeds.isEmpty()) return new ArrayList<>();
+
+        NewsBatchEvent[] ordered = new NewsBatchEvent[selectedFeeds.size()];
+        run(fetchId, selectedFeeds, (fetch, i) -> {
+            ordered[i] = fetch.batch();
+            fetcher.settled(fetch, true);
+        }, r -> {});
 
         List<NewsBatchEvent> batches = new ArrayList<>();
-        if (selectedFeeds == null) return batches;
-
-        for (FeedDto feed : selectedFeeds) {
-            try {
-                List<Item> read = reader.read(feed.url()).collect(Collectors.toList());
-                List<NewsItemPayload> items = new ArrayList<>();
-
-                for (Item it : read) {
-                    String title = it.getTitle().orElse("без названия");
-                    String desc  = it.getDescription().orElse("нет описания");
-                    String link  = it.getLink().orElse("");
-                    link = link.isBlank() ? null : link;
-
-                    String category = null;
-                    try {
-                        var cats = it.getCategories();
-                        if (cats != null && !cats.isEmpty()) {
-                            category = cats.get(0);
-                            if (category != null && category.isBlank()) category = null;
-                        }
-                    } catch (Exception ignored) {}
-
-                    String dateRaw = it.getPubDate().orElse("");
-                    Instant publishedAt = DateParsing.tryParseInstant(dateRaw);
-                    Instant addedAt = Instant.now();
-
-
-                    String guid = it.getGuid().orElse("");
-                    if (guid.isBlank()) {
-                        String base = feed.id() + "|" + (link == null ? "" : link) + "|" + title + "|" + dateRaw;
-                        guid = UUID.nameUUIDFromBytes(base.getBytes(StandardCharsets.UTF_8)).toString();
-                    }
-
-                    items.add(new NewsItemPayload(
-                            title,
-                            desc,
-                            link,
-                            category,
-                            dateRaw,
-                            publishedAt,
-                            addedAt,
-                            guid,
-                            feed.id(),
-                            feed.name(),
-                            feed.url()
-                    ));
+        for (NewsBatchEvent b : ordered) {
+            if (b != null) batches.add(b);
+        }
+        return batches;
+    }
+
+    /**
+     * Streams each feed's batch to {@code sink} on the calling thread as soon as the feed
+     * is fetched and parsed, in completion order. Unchanged feeds are counted but not delivered.
+     */
+    public FetchSummary fetch(String fetchId, List<FeedDto> selectedFeeds, Consumer<NewsBatchEvent> sink) {
+        return run(fetchId, selectedFeeds, (fetch, i) -> {
+            sink.accept(fetch.batch());
+            fetcher.settled(fetch, true);
+        }, r -> {});
+    }
+
+    /**
+     * Streams each changed feed's fetch to {@code sink} as above, and reports each feed's outcome
+     * to {@code progress} once it is settled. The sink reports back through {@link #settled}
+     * whether the batch was delivered.
+     */
+    public FetchSummary fetch(String fetchId, List<FeedDto> selectedFeeds, Consumer<FeedFetch> sink, Consumer<FeedResult> progress) {
+        return run(fetchId, selectedFeeds, (fetch, i) -> sink.accept(fetch), progress);
+    }
+
+    /** Keeps the validators of a streamed fetch once its batch is delivered, or drops them. */
+    public void settled(FeedFetch fetch, boolean delivered) {
+        fetcher.settled(fetch, delivered);
+    }
+
+    private FetchSummary run(String fetchId, List<FeedDto> requested, ObjIntConsumer<FeedFetch> sink, Consumer<FeedResult> progress) {
+        Instant fetchedAt = Instant.now();
+        long deadline = System.nanoTime() + runTimeout.toNanos();
+        if (requested == null || requested.isEmpty()) return new FetchSummary(0, 0, 0, 0, 0);
+
+        // feeds with an open circuit are skipped outright so they cost no fetch slot and no error batch
+        List<FeedDto> feeds = new ArrayList<>();
+        int[] positions = new int[requested.size()];
+        for (int i = 0; i < requested.size(); i++) {
+            if (breakers.allow(requested.get(i).id())) {
+                positions[feeds.size()] = i;
+                feeds.add(requested.get(i));
+            } else {
+                report(progress, new FeedResult(requested.get(i).id(), Outcome.SKIPPED, 0, "circuit open"));
+            }
+        }
+        int skipped = requested.size() - feeds.size();
+        if (feeds.isEmpty()) return new FetchSummary(requested.size(), 0, 0, skipped, 0);
+
+        // fetch+parse workers -> bounded queue -> publishing caller: a slow sink blocks the
+        // workers instead of letting parsed batches pile up on the heap.
+        BlockingQueue<Completed> completed = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicIntegerArray started = new AtomicIntegerArray(feeds.size());
+        List<Future<?>> lanes = new ArrayList<>();
+        for (List<Integer> lane : lanesByHost(feeds)) {
+            lanes.add(executor.submit(() -> {
+                for (int i : lane) {
+                    started.set(i, 1);
+                    completed.put(new Completed(i, fetcher.fetch(fetchId, fetchedAt, feeds.get(i))));
                 }
+                return null;
+            }));
+        }
 
-                batches.add(new NewsBatchEvent(
-                        fetchId,
-                        fetchedAt,
-                        feed.id(),
-                        feed.name(),
-                        feed.url(),
-                        items,
-                        null
-                ));
-            } catch (Exception ex) {
-                batches.add(new NewsBatchEvent(
-                        fetchId,
-                        fetchedAt,
-                        feed.id(),
-                        feed.name(),
-                        feed.url(),
-                        List.of(),
-                        ex.getMessage()
-                ));
+        Tally tally = new Tally(feeds.size());
+        boolean deadlineHit = false;
+        try {
+            while (tally.received < feeds.size()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    deadlineHit = true;
+                    break;
+                }
+                Completed c = completed.poll(Math.min(remaining, POLL_NANOS), TimeUnit.NANOSECONDS);
+                if (c == null) {
+                    if (completed.isEmpty() && lanes.stream().allMatch(Future::isDone)) break;
+                    continue;
+                }
+                accept(c, tally, sink, progress, positions);
             }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
         }
 
-        return batches;
+        if (tally.received < feeds.size()) {
+            lanes.forEach(f -> f.cancel(true));
+            // results queued before the lanes were stopped are complete and still delivered
+            List<Completed> late = new ArrayList<>();
+            completed.drainTo(late);
+            for (Completed c : late) accept(c, tally, sink, progress, positions);
+        }
+
+        int timedOut = 0;
+        for (int i = 0; i < feeds.size(); i++) {
+            if (tally.done[i]) continue;
+            if (deadlineHit) timedOut++;
+            Outcome outcome = deadlineHit ? Outcome.TIMED_OUT : Outcome.FAILED;
+            // a feed that never got a fetch slot is not at fault: no error batch, no breaker failure
+            if (started.get(i) == 0) {
+                report(progress, new FeedResult(feeds.get(i).id(), outcome, 0, "not started"));
+                continue;
+            }
+
+            String reason = deadlineHit
+                    ? "timed out: refresh deadline of " + runTimeout.getSeconds() + "s exceeded"
+                    : "fetch interrupted";
+            report(progress, new FeedResult(feeds.get(i).id(), outcome, 0, reason));
+            FeedFetch failed = new FeedFetch(feeds.get(i), FeedFetcher.errorBatch(fetchId, fetchedAt, feeds.get(i), reason), FeedFetch.Hints.NONE);
+            recordOutcome(failed);
+            deliver(sink, failed, positions[i]);
+            tally.batches++;
+        }
+        if (timedOut > 0) {
+            log.warn("Refresh {} hit its {}s deadline; {} of {} feeds did not finish", fetchId, runTimeout.getSeconds(), timedOut, feeds.size());
+        }
+        return new FetchSummary(requested.size(), tally.batches, tally.unchanged, skipped, timedOut);
+    }
+
+    private void accept(Completed c, Tally tally, ObjIntConsumer<FeedFetch> sink, Consumer<FeedResult> progress, int[] positions) {
+        tally.received++;
+        tally.done[c.index()] = true;
+        planner.record(c.fetch());
+        recordOutcome(c.fetch());
+        report(progress, FeedResult.of(c.fetch()));
+        if (c.fetch().unchanged()) {
+            tally.unchanged++;
+        } else {
+            deliver(sink, c.fetch(), positions[c.index()]);
+            tally.batches++;
+        }
+    }
+
+    private void recordOutcome(FeedFetch fetch) {
+        String feedId = fetch.feed().id();
+        if (fetch.failed()) {
+            breakers.recordFailure(feedId, fetch.batch().error());
+        } else {
+            breakers.recordSuccess(feedId);
+        }
+    }
+
+    private static void deliver(ObjIntConsumer<FeedFetch> sink, FeedFetch fetch, int index) {
+        try {
+            sink.accept(fetch, index);
+        } catch (Exception ex) {
+            log.error("Failed to hand over batch for {}", fetch.feed().id(), ex);
+        }
+    }
+
+    private static void report(Consumer<FeedResult> progress, FeedResult result) {
+        try {
+            progress.accept(result);
+        } catch (Exception ex) {
+            log.warn("Progress listener failed for {}", result.feedId(), ex);
+        }
     }
+
+    private List<List<Integer>> lanesByHost(List<FeedDto> feeds) {
+        Map<String, List<List<Integer>>> byHost = new LinkedHashMap<>();
+        Map<String, Integer> seen = new HashMap<>();
+
+        for (int i = 0; i < feeds.size(); i++) {
+            String host = hostOf(feeds.get(i).url());
+            int n = seen.merge(host, 1, Integer::sum) - 1;
+            List<List<Integer>> hostLanes = byHost.computeIfAbsent(host, h -> new ArrayList<>());
+            if (hostLanes.size() < perHostConcurrency) hostLanes.add(new ArrayList<>());
+            hostLanes.get(n % perHostConcurrency).add(i);
+        }
+
+        return byHost.values().stream().flatMap(List::stream).toList();
+    }
+
+    static String hostOf(String url) {
+        if (url == null) return "";
+        try {
+            String host = URI.create(url.trim()).getHost();
+            return host == null ? url : host.toLowerCase(Locale.ROOT);
+        } catch (IllegalArgumentException ex) {
+            return url;
+        }
+    }
+
+    public record FetchSummary(int feeds, int batches, int unchanged, int skipped, int timedOut) {}
+
+    public enum Outcome { PENDING, FETCHED, UNCHANGED, FAILED, SKIPPED, TIMED_OUT }
+
+    public record FeedResult(String feedId, Outcome outcome, int items, String error) {
+        static FeedResult of(FeedFetch fetch) {
+            String id = fetch.feed().id();
+            if (fetch.unchanged()) return new FeedResult(id, Outcome.UNCHANGED, 0, null);
+            if (fetch.failed()) return new FeedResult(id, Outcome.FAILED, 0, fetch.batch().error());
+            List<?> items = fetch.batch().items();
+            return new FeedResult(id, Outcome.FETCHED, items == null ? 0 : items.size(), null);
+        }
+    }
+
+    private static final class Tally {
+        final boolean[] done;
+        int received;
+        int batches;
+        int unchanged;
+
+        Tally(int feeds) {
+            this.done = new boolean[feeds];
+        }
+    }
+
+    private record Completed(int index, FeedFetch fetch) {}
 }
@@ -0,0 +1,157 @@
+package org.example.newshub.ingestor.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.newshub.common.kafka.ItemKey;
+import org.example.newshub.common.kafka.NewsBatchEvent;
+import org.example.newshub.common.kafka.NewsItemPayload;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Per-feed LRU of items already delivered to Kafka, so a refresh only publishes new or changed
+ * items. Items are remembered by the first 64 bits of their {@link ItemKey}; the set is bounded
+ * per feed and flushed to a local file so it survives restarts. Items are only marked seen
+ * once Kafka acknowledged them.
+ */
+@Component
+public class SeenItems {
+
+    private static final Logger log = LoggerFactory.getLogger(SeenItems.class);
+    private static final int FILE_MAGIC = 0x4E534931; // "NSI1"
+
+    private final boolean enabled;
+    private final int maxPerFeed;
+    private final Path file;
+
+    private final Map<String, LinkedHashMap<Long, Boolean>> byFeed = new HashMap<>();
+    private boolean dirty;
+
+    public SeenItems(
+            @Value("${newshub.fetch.seen.enabled:true}") boolean enabled,
+            @Value("${newshub.fetch.seen.max-per-feed:2000}") int maxPerFeed,
+            @Value("${newshub.fetch.seen.file:}") String file
+    ) {
+        this.enabled = enabled;
+        this.maxPerFeed = Math.max(1, maxPerFeed);
+        this.file = file == null || file.isBlank() ? null : Path.of(file.trim());
+    }
+
+    /** Drops items already delivered; {@code keys} are what to {@link #markSeen} once the result is acknowledged. */
+    public synchronized Fresh filter(NewsBatchEvent batch) {
+        if (!enabled || batch == null || !batch.ok() || batch.items() == null || batch.items().isEmpty()) {
+            return new Fresh(batch, new long[0], 0);
+        }
+
+        LinkedHashMap<Long, Boolean> seen = byFeed.get(batch.sourceId());
+        List<NewsItemPayload> fresh = new ArrayList<>();
+        long[] keys = new long[batch.items().size()];
+        int n = 0;
+        for (NewsItemPayload it : batch.items()) {
+            long key = hash(it);
+            // get() also refreshes the entry, so items still in the feed are not evicted
+            if (seen != null && seen.get(key) != null) continue;
+            fresh.add(it);
+            keys[n++] = key;
+        }
+
+        int dropped = batch.items().size() - fresh.size();
+        if (dropped == 0) return new Fresh(batch, Arrays.copyOf(keys, n), 0);
+        NewsBatchEvent filtered = new NewsBatchEvent(batch.fetchId(), batch.fetchedAt(), batch.sourceId(),
+                batch.sourceName(), batch.sourceUrl(), fresh, null);
+        return new Fresh(filtered, Arrays.copyOf(keys, n), dropped);
+    }
+
+    public synchronized void markSeen(String feedId, long[] keys) {
+        if (!enabled || feedId == null || keys == null || keys.length == 0) return;
+        LinkedHashMap<Long, Boolean> seen = byFeed.computeIfAbsent(feedId, id -> newLru());
+        for (long k : keys) seen.put(k, Boolean.TRUE);
+        dirty = true;
+    }
+
+    /** Forgets feeds that are no longer selected, so re-selecting one publishes its items again. */
+    public synchronized void retain(Collection<String> feedIds) {
+        if (byFeed.keySet().retainAll(new HashSet<>(feedIds))) dirty = true;
+    }
+
+    public synchronized int size(String feedId) {
+        LinkedHashMap<Long, Boolean> seen = byFeed.get(feedId);
+        return seen == null ? 0 : seen.size();
+    }
+
+    static long hash(NewsItemPayload it) {
+        byte[] key = ItemKey.binary(it);
+        long h = 0;
+        for (int i = 0; i < Long.BYTES; i++) h = (h << 8) | (key[i] & 0xFF);
+        return h;
+    }
+
+    @PostConstruct
+    synchronized void load() {
+        if (!enabled || file == null || !Files.isRegularFile(file)) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FILE_MAGIC) {
+                log.warn("Ignoring {}: not a seen-items file", file);
+                return;
+            }
+            int feeds = in.readInt();
+            for (int f = 0; f < feeds; f++) {
+                String feedId = in.readUTF();
+                int count = in.readInt();
+                LinkedHashMap<Long, Boolean> seen = newLru();
+                for (int i = 0; i < count; i++) seen.put(in.readLong(), Boolean.TRUE);
+                byFeed.put(feedId, seen);
+            }
+            log.info("Loaded seen items for {} feeds from {}", byFeed.size(), file);
+        } catch (IOException ex) {
+            // a damaged file only costs one round of republishing
+            log.warn("Could not read {}: {}", file, ex.toString());
+            byFeed.clear();
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${newshub.fetch.seen.flush-seconds:60}000")
+    public synchronized void flush() {
+        if (!enabled || file == null || !dirty) return;
+        try {
+            Path dir = file.toAbsolutePath().getParent();
+            if (dir != null) Files.createDirectories(dir);
+            Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(byFeed.size());
+                for (Map.Entry<String, LinkedHashMap<Long, Boolean>> e : byFeed.entrySet()) {
+                    out.writeUTF(e.getKey());
+                    out.writeInt(e.getValue().size());
+                    for (long k : e.getValue().keySet()) out.writeLong(k);
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dirty = false;
+        } catch (IOException ex) {
+            log.warn("Could not write {}: {}", file, ex.toString());
+        }
+    }
+
+    private LinkedHashMap<Long, Boolean> newLru() {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > maxPerFeed;
+            }
+        };
+    }
+
+    /** {@code dropped} items were already delivered and left out of {@code batch}. */
+    public record Fresh(NewsBatchEvent batch, long[] keys, int dropped) {}
+}
@@ -0,0 +1,352 @@
+package org.example.newshub.ingestor.service;
+
+import org.example.newshub.common.dto.FeedDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * WebSub (PubSubHubbub) subscriptions for feeds that advertise a hub. A feed polled with a
+ * {@code rel="hub"} link is subscribed with a per-subscription callback token and secret; once
+ * the hub has verified the callback and pushes arrive, regular polling of that feed drops to a
+ * rare safety poll. Disabled unless {@code callback-base-url} is set, as the hub must be able
+ * to reach this replica.
+ */
+@Component
+public class WebSubSubscriptions {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSubSubscriptions.class);
+    static final int SNIFF_BYTES = 32 * 1024;
+    private static final Pattern LINK = Pattern.compile("<(?:[a-z0-9]+:)?link\\b([^>]*)>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern REL = Pattern.compile("\\brel\\s*=\\s*[\"']([^\"']*)[\"']", Pattern.CASE_INSENSITIVE);
+    private static final Pattern HREF = Pattern.compile("\\bhref\\s*=\\s*[\"']([^\"']*)[\"']", Pattern.CASE_INSENSITIVE);
+    private static final Duration RETRY_AFTER = Duration.ofHours(1);
+    private static final Duration VERIFY_WITHIN = Duration.ofMinutes(30);
+
+    enum State { REQUESTED, ACTIVE, FAILED }
+
+    private final String callbackBase;
+    private final Duration lease;
+    private final Duration safetyPoll;
+    private final HttpClient http;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+
+    private final Map<String, Subscription> byFeed = new HashMap<>();
+    private final Map<String, Subscription> byToken = new HashMap<>();
+
+    @Autowired
+    public WebSubSubscriptions(
+            HttpClient http,
+            @Value("${newshub.websub.callback-base-url:}") String callbackBase,
+            @Value("${newshub.websub.lease-seconds:86400}") long leaseSeconds,
+            @Value("${newshub.websub.safety-poll-minutes:360}") long safetyPollMinutes
+    ) {
+        this(http, callbackBase, leaseSeconds, safetyPollMinutes, Clock.systemUTC());
+    }
+
+    WebSubSubscriptions(String callbackBase, long leaseSeconds, long safetyPollMinutes) {
+        this(callbackBase, leaseSeconds, safetyPollMinutes, Clock.systemUTC());
+    }
+
+    WebSubSubscriptions(String callbackBase, long leaseSeconds, long safetyPollMinutes, Clock clock) {
+        this(HttpClientConfig.build(5), callbackBase, leaseSeconds, safetyPollMinutes, clock);
+    }
+
+    private WebSubSubscriptions(HttpClient http, String callbackBase, long leaseSeconds, long safetyPollMinutes, Clock clock) {
+        this.callbackBase = callbackBase == null || callbackBase.isBlank() ? null : callbackBase.trim().replaceAll("/+$", "");
+        this.lease = Duration.ofSeconds(Math.max(300, leaseSeconds));
+        this.safetyPoll = Duration.ofMinutes(Math.max(1, safetyPollMinutes));
+        this.http = http;
+        this.clock = clock;
+    }
+
+    public boolean enabled() {
+        return callbackBase != null;
+    }
+
+    /**
+     * Called with every parsed feed body: notes the poll and subscribes when the feed names a
+     * hub and is not subscribed (or was subscribed to a different hub).
+     */
+    public void polled(FeedDto feed, byte[] body) {
+        if (!enabled() || feed == null) return;
+        Links links = links(body);
+        Subscription sub;
+        synchronized (this) {
+            sub = byFeed.get(feed.id());
+            if (sub != null) sub.lastPolled = clock.instant();
+            if (links.hub() == null) return;
+            // failed subscriptions are retried by renew()
+            if (sub != null && sub.hub.equals(links.hub())) return;
+
+            String topic = links.self() != null ? links.self() : feed.url();
+            sub = new Subscription(feed, links.hub(), topic, randomHex(16), randomHex(32));
+            sub.lastPolled = clock.instant();
+            sub.retryAt = clock.instant().plus(VERIFY_WITHIN);
+            put(sub);
+        }
+        request(sub, "subscribe");
+    }
+
+    /**
+     * Called when a poll found the feed unchanged (304 or an identical body): there is nothing to
+     * sniff for a hub, but the poll still counts as the safety poll of a pushed feed.
+     */
+    public synchronized void polled(FeedDto feed) {
+        if (!enabled() || feed == null) return;
+        Subscription sub = byFeed.get(feed.id());
+        if (sub != null) sub.lastPolled = clock.instant();
+    }
+
+    /** How often a pushed feed is still polled, in case the hub misses an update. */
+    Duration safetyPoll() {
+        return safetyPoll;
+    }
+
+    /** True while pushes cover the feed, so the scheduler can leave it to the next safety poll. */
+    public synchronized boolean pushed(String feedId) {
+        Subscription sub = byFeed.get(feedId);
+        if (sub == null || sub.state != State.ACTIVE) return false;
+        Instant now = clock.instant();
+        return now.isBefore(sub.leaseUntil) && sub.lastPolled != null && now.isBefore(sub.lastPolled.plus(safetyPoll));
+    }
+
+    /**
+     * Answers the hub's verification of intent; the challenge to echo, or empty to refuse. A
+     * denial carries a reason instead of a challenge and is acknowledged with an empty body.
+     */
+    public synchronized Optional<String> verify(String token, String mode, String topic, String challenge, Long leaseSeconds) {
+        Subscription sub = byToken.get(token);
+        if (sub == null || !sub.topic.equals(topic)) return Optional.empty();
+        if ("denied".equals(mode)) {
+            log.warn("WebSub hub {} denied the subscription for {}", sub.hub, sub.feed.id());
+            fail(sub);
+            return Optional.of(challenge == null ? "" : challenge);
+        }
+        if (challenge == null) return Optional.empty();
+        if ("subscribe".equals(mode)) {
+            sub.state = State.ACTIVE;
+            sub.leaseUntil = clock.instant().plusSeconds(leaseSeconds == null || leaseSeconds <= 0 ? lease.getSeconds() : leaseSeconds);
+            log.info("WebSub subscription for {} active via {} until {}", sub.feed.id(), sub.hub, sub.leaseUntil);
+            return Optional.of(challenge);
+        }
+        if ("unsubscribe".equals(mode)) {
+            remove(sub);
+            return Optional.of(challenge);
+        }
+        return Optional.empty();
+    }
+
+    public synchronized boolean knows(String token) {
+        return byToken.containsKey(token);
+    }
+
+    /**
+     * The feed a pushed body belongs to, if the token is ours and the body is signed with its
+     * secret. Unsigned or badly signed pushes must be ignored (but still acknowledged).
+     */
+    public Optional<FeedDto> accept(String token, byte[] body, String signature) {
+        Subscription sub;
+        synchronized (this) {
+            sub = byToken.get(token);
+            if (sub != null && byFeed.get(sub.feed.id()) != sub) sub = null;
+        }
+        if (sub == null) return Optional.empty();
+        if (!signed(sub.secret, body, signature)) {
+            log.warn("Ignoring WebSub push for {}: bad or missing signature", sub.feed.id());
+            return Optional.empty();
+        }
+        return Optional.of(sub.feed);
+    }
+
+    /** Forgets feeds that are no longer selected and unsubscribes them at their hubs. */
+    public void retain(Collection<String> feedIds) {
+        List<Subscription> dropped = new ArrayList<>();
+        synchronized (this) {
+            Set<String> keep = new HashSet<>(feedIds);
+            for (Subscription sub : List.copyOf(byFeed.values())) {
+                if (!keep.contains(sub.feed.id())) {
+                    // an active one keeps its token until the hub confirms the unsubscribe
+                    if (sub.state == State.ACTIVE) {
+                        byFeed.remove(sub.feed.id());
+                        dropped.add(sub);
+                    } else {
+                        remove(sub);
+                    }
+                }
+            }
+        }
+        dropped.forEach(sub -> request(sub, "unsubscribe"));
+    }
+
+    /**
+     * Renews leases that run out before the next check, and retries failed subscriptions. A
+     * requested one the hub has not verified within {@code VERIFY_WITHIN} counts as failed.
+     */
+    @Scheduled(fixedDelayString = "${newshub.websub.renew-check-seconds:600}000")
+    public void renew() {
+        if (!enabled()) return;
+        Instant horizon = clock.instant().plus(Duration.ofMinutes(30));
+        List<Subscription> due = new ArrayList<>();
+        synchronized (this) {
+            for (Subscription sub : byFeed.values()) {
+                if (sub.state == State.REQUESTED && !clock.instant().isBefore(sub.retryAt)) {
+                    log.warn("WebSub hub {} did not verify the subscription for {} within {}", sub.hub, sub.feed.id(), VERIFY_WITHIN);
+                    sub.state = State.FAILED;
+                }
+                boolean expiring = sub.state == State.ACTIVE && sub.leaseUntil.isBefore(horizon);
+                boolean retry = sub.state == State.FAILED && !clock.instant().isBefore(sub.retryAt);
+                if (retry) sub.retryAt = clock.instant().plus(RETRY_AFTER);
+                if (expiring || retry) due.add(sub);
+            }
+        }
+        due.forEach(sub -> request(sub, "subscribe"));
+    }
+
+    private void request(Subscription sub, String mode) {
+        String form = form(Map.of(
+                "hub.mode", mode,
+                "hub.topic", sub.topic,
+                "hub.callback", callbackBase + "/websub/" + sub.token,
+                "hub.secret", sub.secret,
+                "hub.lease_seconds", Long.toString(lease.getSeconds())));
+        HttpRequest req = HttpRequest.newBuilder(URI.create(sub.hub))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("User-Agent", FeedHttpClient.USER_AGENT)
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+
+        // the hub answers 202 and verifies the callback on its own time
+        http.sendAsync(req, HttpResponse.BodyHandlers.discarding()).whenComplete((resp, ex) -> {
+            if (ex == null && resp.statusCode() / 100 == 2) {
+                log.info("WebSub {} for {} requested at {}", mode, sub.feed.id(), sub.hub);
+                return;
+            }
+            String why = ex != null ? ex.toString() : "HTTP " + resp.statusCode();
+            log.warn("WebSub {} for {} at {} failed: {}", mode, sub.feed.id(), sub.hub, why);
+            if ("subscribe".equals(mode)) {
+                synchronized (this) {
+                    if (sub.state != State.ACTIVE) fail(sub);
+                }
+            }
+        });
+    }
+
+    private void put(Subscription sub) {
+        Subscription old = byFeed.put(sub.feed.id(), sub);
+        if (old != null) byToken.remove(old.token);
+        byToken.put(sub.token, sub);
+    }
+
+    private void remove(Subscription sub) {
+        byFeed.remove(sub.feed.id(), sub);
+        byToken.remove(sub.token);
+    }
+
+    private void fail(Subscription sub) {
+        sub.state = State.FAILED;
+        sub.retryAt = clock.instant().plus(RETRY_AFTER);
+    }
+
+    static boolean signed(String secret, byte[] body, String signature) {
+        if (signature == null) return false;
+        int eq = signature.indexOf('=');
+        if (eq < 0) return false;
+        String algorithm = switch (signature.substring(0, eq).trim().toLowerCase(Locale.ROOT)) {
+            case "sha1" -> "HmacSHA1";
+            case "sha256" -> "HmacSHA256";
+            case "sha384" -> "HmacSHA384";
+            case "sha512" -> "HmacSHA512";
+            default -> null;
+        };
+        if (algorithm == null) return false;
+        try {
+            Mac mac = Mac.getInstance(algorithm);
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), algorithm));
+            byte[] expected = mac.doFinal(body == null ? new byte[0] : body);
+            byte[] given = HexFormat.of().parseHex(signature.substring(eq + 1).trim().toLowerCase(Locale.ROOT));
+            return MessageDigest.isEqual(expected, given);
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    /** The {@code rel="hub"} and {@code rel="self"} links near the top of a feed. */
+    static Links links(byte[] body) {
+        if (body == null) return new Links(null, null);
+        String head = new String(body, 0, Math.min(body.length, SNIFF_BYTES), StandardCharsets.UTF_8);
+        String hub = null;
+        String self = null;
+        Matcher m = LINK.matcher(head);
+        while (m.find() && (hub == null || self == null)) {
+            Matcher rel = REL.matcher(m.group(1));
+            Matcher href = HREF.matcher(m.group(1));
+            if (!rel.find() || !href.find()) continue;
+            String url = href.group(1).trim().replace("&amp;", "&");
+            if (!url.startsWith("http://") && !url.startsWith("https://")) continue;
+            for (String r : rel.group(1).trim().split("\\s+")) {
+                if (hub == null && r.equalsIgnoreCase("hub")) hub = url;
+                if (self == null && r.equalsIgnoreCase("self")) self = url;
+            }
+        }
+        return new Links(hub, self);
+    }
+
+    private static String form(Map<String, String> fields) {
+        StringJoiner out = new StringJoiner("&");
+        fields.forEach((k, v) -> out.add(URLEncoder.encode(k, StandardCharsets.UTF_8) + "=" + URLEncoder.encode(v, StandardCharsets.UTF_8)));
+        return out.toString();
+    }
+
+    private String randomHex(int bytes) {
+        byte[] b = new byte[bytes];
+        random.nextBytes(b);
+        return HexFormat.of().formatHex(b);
+    }
+
+    record Links(String hub, String self) {}
+
+    private static final class Subscription {
+        final FeedDto feed;
+        final String hub;
+        final String topic;
+        final String token;
+        final String secret;
+        State state = State.REQUESTED;
+        Instant leaseUntil = Instant.EPOCH;
+        // when a failed subscription is retried, or a requested one counts as failed
+        Instant retryAt = Instant.EPOCH;
+        Instant lastPolled;
+
+        Subscription(FeedDto feed, String hub, String topic, String token, String secret) {
+            this.feed = feed;
+            this.hub = hub;
+            this.topic = topic;
+            this.token = token;
+            this.secret = secret;
+        }
+    }
+}
@@ -1,20 +1,52 @@
 package org.example.newshub.ingestor.web;
 
-import org.example.newshub.ingestor.service.IngestorService;
-import org.springframework.web.bind.annotation.PostMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.example.newshub.ingestor.service.FeedCircuitBreakers;
+import org.example.newshub.ingestor.service.RefreshJob;
+import org.example.newshub.ingestor.service.RefreshJobs;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
 
 @RestController
 public class InternalController {
 
-    private final IngestorService ingestor;
+    private final RefreshJobs jobs;
+    private final FeedCircuitBreakers breakers;
 
-    public InternalController(IngestorService ingestor) {
-        this.ingestor = ingestor;
+    public InternalController(RefreshJobs jobs, FeedCircuitBreakers breakers) {
+        this.jobs = jobs;
+        this.breakers = breakers;
     }
 
+    /**
+     * Starts a refresh and returns at once; poll the Location for progress. A trigger that joins
+     * a job already in flight (or just finished) answers 200 with that job. 429 while too many jobs run.
+     */
     @PostMapping("/internal/refresh")
-    public IngestorService.RefreshRun refresh() {
-        return ingestor.refreshOnce();
+    public ResponseEntity<RefreshJob.View> refresh() {
+        return jobs.submit()
+                .map(s -> ResponseEntity.status(s.joined() ? HttpStatus.OK : HttpStatus.ACCEPTED)
+                        .location(URI.create("/internal/refresh/" + s.job().fetchId()))
+                        .body(s.job().view()))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build());
+    }
+
+    @GetMapping("/internal/refresh/{fetchId}")
+    public ResponseEntity<RefreshJob.View> refreshStatus(@PathVariable String fetchId) {
+        return ResponseEntity.of(jobs.find(fetchId).map(RefreshJob::view));
+    }
+
+    @GetMapping("/internal/breakers")
+    public List<FeedCircuitBreakers.BreakerView> breakers() {
+        return breakers.snapshot();
+    }
+
+    @DeleteMapping("/internal/breakers/{feedId}")
+    public ResponseEntity<Void> resetBreaker(@PathVariable String feedId) {
+        breakers.reset(feedId);
+        return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,60 @@
+package org.example.newshub.ingestor.web;
+
+import org.example.newshub.common.dto.FeedDto;
+import org.example.newshub.ingestor.service.FeedFetcher;
+import org.example.newshub.ingestor.service.IngestorService;
+import org.example.newshub.ingestor.service.WebSubSubscriptions;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/** Callback endpoint for WebSub hubs: verification of intent (GET) and content distribution (POST). */
+@RestController
+public class WebSubController {
+
+    private final WebSubSubscriptions subscriptions;
+    private final FeedFetcher fetcher;
+    private final IngestorService ingestor;
+
+    public WebSubController(WebSubSubscriptions subscriptions, FeedFetcher fetcher, IngestorService ingestor) {
+        this.subscriptions = subscriptions;
+        this.fetcher = fetcher;
+        this.ingestor = ingestor;
+    }
+
+    @GetMapping(value = "/websub/{token}", produces = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<String> verify(
+            @PathVariable String token,
+            @RequestParam("hub.mode") String mode,
+            @RequestParam("hub.topic") String topic,
+            @RequestParam(value = "hub.challenge", required = false) String challenge,
+            @RequestParam(value = "hub.lease_seconds", required = false) Long leaseSeconds
+    ) {
+        return subscriptions.verify(token, mode, topic, challenge, leaseSeconds)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Pushed feed content goes through the same parse, normalize and publish path as a poll.
+     * Answers 202 at once; pushes for unknown tokens get 404 so the hub stops sending, and
+     * badly signed ones are acknowledged but dropped, as WebSub requires.
+     */
+    @PostMapping("/websub/{token}")
+    public ResponseEntity<Void> content(
+            @PathVariable String token,
+            @RequestHeader(value = "X-Hub-Signature", required = false) String signature,
+            @RequestBody(required = false) byte[] body
+    ) {
+        if (!subscriptions.knows(token)) return ResponseEntity.notFound().build();
+        Optional<FeedDto> feed = subscriptions.accept(token, body, signature);
+        if (feed.isPresent() && body != null && body.length > 0) {
+            ingestor.publishPushed(fetcher.parsePushed(UUID.randomUUID().toString(), Instant.now(), feed.get(), body));
+        }
+        return ResponseEntity.accepted().build();
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.newshub.ingestor.kafka;
+
+import org.example.newshub.common.kafka.NewsBatchEvent;
+import org.example.newshub.common.kafka.NewsItemPayload;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchSpoolTest {
+
+    private static final int SEGMENT = 64 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private BatchSpool spool;
+
+    @AfterEach
+    void tearDown() {
+        if (spool != null) spool.close();
+    }
+
+    @Test
+    void replays_in_append_order_and_resumes_after_a_restart() {
+        spool = new BatchSpool(true, dir.toString(), SEGMENT, SEGMENT * 4L);
+        for (String id : List.of("a", "b", "c")) assertThat(spool.append(batch(id, 2))).isTrue();
+
+        List<BatchSpool.Spooled> first = spool.peek(10);
+        assertThat(first).extracting(r -> r.batch().sourceId()).containsExactly("a", "b", "c");
+        assertThat(first.get(0).batch().items()).hasSize(2);
+        spool.ack(first.get(0));
+        spool.close();
+
+        spool = new BatchSpool(true, dir.toString(), SEGMENT, SEGMENT * 4L);
+        assertThat(spool.pending()).isZero();
+        assertThat(spool.peek(10)).extracting(r -> r.batch().sourceId()).containsExactly("b", "c");
+        assertThat(spool.pending()).isEqualTo(2);
+    }
+
+    @Test
+    void drops_replayed_segments_and_enforces_the_size_limit() throws Exception {
+        spool = new BatchSpool(true, dir.toString(), SEGMENT, SEGMENT * 2L);
+        Path first = dir.resolve(String.format("%020d.spool", 1));
+        int n = 0;
+        while (n == 0 || Files.exists(first)) spool.append(batch("s" + n++, 50));
+
+        // the third segment pushed the spool over its limit, so the oldest was dropped unsent
+        assertThat(segments()).hasSize(2);
+        assertThat(spool.peek(1).get(0).batch().sourceId()).isNotEqualTo("s0");
+
+        List<BatchSpool.Spooled> all = spool.peek(Integer.MAX_VALUE);
+        all.forEach(spool::ack);
+        assertThat(spool.isEmpty()).isTrue();
+        assertThat(segments()).hasSize(1);
+    }
+
+    @Test
+    void skips_corrupt_records_and_stops_at_torn_ones() throws Exception {
+        spool = new BatchSpool(true, dir.toString(), SEGMENT, SEGMENT * 4L);
+        spool.append(batch("a", 1));
+        spool.append(batch("b", 1));
+        spool.close();
+
+        Path segment = segments().get(0);
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer len = ByteBuffer.allocate(4);
+            ch.read(len, 0);
+            int firstLen = len.flip().getInt();
+            // flip a payload byte of "a", and leave a torn length past "b"
+            ch.write(ByteBuffer.wrap(new byte[]{0x7F}), 8 + firstLen / 2);
+            int end = 8 + firstLen;
+            len.clear();
+            ch.read(len, end);
+            end += 8 + len.flip().getInt();
+            ch.write(ByteBuffer.allocate(4).putInt(0, SEGMENT * 2), end);
+        }
+
+        spool = new BatchSpool(true, dir.toString(), SEGMENT, SEGMENT * 4L);
+        assertThat(spool.peek(10)).extracting(r -> r.batch().sourceId()).containsExactly("b");
+        assertThat(spool.append(batch("c", 1))).isTrue();
+        assertThat(spool.peek(10)).extracting(r -> r.batch().sourceId()).containsExactly("b", "c");
+    }
+
+    @Test
+    void disabled_spool_refuses_batches() {
+        spool = new BatchSpool(false, dir.toString(), SEGMENT, SEGMENT);
+
+        assertThat(spool.append(batch("a", 1))).isFalse();
+        assertThat(spool.isEmpty()).isTrue();
+    }
+
+    private List<Path> segments() throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static NewsBatchEvent batch(String sourceId, int items) {
+        Instant now = Instant.parse("2024-12-03T14:05:00Z");
+        List<NewsItemPayload> list = new java.util.ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            list.add(new NewsItemPayload("title " + i, "описание ".repeat(10), "https://x/" + sourceId + "/" + i, null,
+                    "", now, now, sourceId + "-" + i, sourceId, sourceId, "https://x/" + sourceId));
+        }
+        return new NewsBatchEvent("f", now, sourceId, sourceId, "https://x/" + sourceId, list, null);
+    }
+}
@@ -0,0 +1,70 @@
+package org.example.newshub.ingestor.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.example.newshub.common.dto.FeedDto;
+import org.example.newshub.common.kafka.FeedConfigEvent;
+import org.example.newshub.ingestor.service.FeedApiClient;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+class FeedConfigListenerTest {
+
+    private static final String TOPIC = "newshub.feed-config";
+
+    @Test
+    void skips_records_it_cannot_apply_and_starts_over_after_the_consumer_fails() throws Exception {
+        FeedApiClient feedApi = mock(FeedApiClient.class);
+        FeedConfigEvent broken = event("v1");
+        FeedConfigEvent v2 = event("v2");
+        FeedConfigEvent v3 = event("v3");
+        doThrow(new IllegalStateException("boom")).when(feedApi).accept(broken);
+
+        MockConsumer<String, FeedConfigEvent> first = consumer();
+        first.schedulePollTask(() -> {
+            first.addRecord(record(0, null)); // what ErrorHandlingDeserializer leaves of an unreadable value
+            first.addRecord(record(1, broken));
+            first.addRecord(record(2, v2));
+        });
+        first.schedulePollTask(() -> first.setPollException(new KafkaException("broker gone")));
+        MockConsumer<String, FeedConfigEvent> second = consumer();
+        second.schedulePollTask(() -> second.addRecord(record(0, v3)));
+        Iterator<MockConsumer<String, FeedConfigEvent>> consumers = List.of(first, second).iterator();
+
+        FeedConfigListener listener = new FeedConfigListener(feedApi, TOPIC, Duration.ofMillis(10), consumers::next);
+        listener.start();
+        try {
+            verify(feedApi, timeout(5000)).accept(v2);
+            verify(feedApi, timeout(5000)).accept(v3);
+            verify(feedApi, never()).accept(null);
+        } finally {
+            listener.stop();
+        }
+    }
+
+    private static MockConsumer<String, FeedConfigEvent> consumer() {
+        MockConsumer<String, FeedConfigEvent> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions(TOPIC, List.of(new PartitionInfo(TOPIC, 0, null, null, null)));
+        consumer.updateBeginningOffsets(Map.of(new TopicPartition(TOPIC, 0), 0L));
+        return consumer;
+    }
+
+    private static ConsumerRecord<String, FeedConfigEvent> record(long offset, FeedConfigEvent event) {
+        return new ConsumerRecord<>(TOPIC, 0, offset, "selected", event);
+    }
+
+    private static FeedConfigEvent event(String version) {
+        return new FeedConfigEvent(version, Instant.parse("2025-12-18T12:00:00Z"), List.of(new FeedDto("a", "A", "https://a.example/rss")));
+    }
+}
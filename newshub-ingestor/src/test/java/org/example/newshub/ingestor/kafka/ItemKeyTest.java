@@ -0,0 +1,31 @@
+package org.example.newshub.ingestor.kafka;
+
+import org.example.newshub.common.kafka.ItemKey;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ItemKeyTest {
+
+    @Test
+    void streamed_keys_match_hashing_the_joined_fields() throws Exception {
+        String[][] items = {
+                {"lenta", "guid-1", "https://lenta.ru/news/1", "Заголовок «новости» — 2024", "Tue, 03 Dec 2024 14:05:00 +0300"},
+                {null, null, null, null, null},
+                {"bbc", "", "https://bbc.co.uk/a", "emoji 🚀 and a lone \uD800 surrogate \uDC00", ""},
+                {"long", "g", "https://x/" + "é".repeat(700), "t".repeat(1500), "d"},
+        };
+        for (String[] f : items) {
+            String joined = String.join("|", Arrays.stream(f).map(s -> s == null ? "" : s).toList());
+            byte[] expected = MessageDigest.getInstance("SHA-256").digest(joined.getBytes(StandardCharsets.UTF_8));
+
+            assertThat(ItemKey.of(f[0], f[1], f[2], f[3], f[4])).isEqualTo(HexFormat.of().formatHex(expected));
+            assertThat(ItemKey.binary(f[0], f[1], f[2], f[3], f[4])).isEqualTo(Arrays.copyOf(expected, ItemKey.BINARY_LENGTH));
+        }
+    }
+}
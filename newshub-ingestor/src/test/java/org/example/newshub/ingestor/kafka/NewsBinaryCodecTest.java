@@ -0,0 +1,79 @@
+package org.example.newshub.ingestor.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.example.newshub.common.kafka.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NewsBinaryCodecTest {
+
+    private final NewsBinarySerializer serializer = new NewsBinarySerializer();
+    private final NewsBinaryDeserializer deserializer = new NewsBinaryDeserializer();
+
+    @Test
+    void batch_round_trips_with_nulls_and_foreign_sources() {
+        Instant at = Instant.parse("2025-12-18T12:00:00.123456789Z");
+        List<NewsItemPayload> items = List.of(
+                new NewsItemPayload("Заголовок", "Описание", "https://ria.ru/1", "Мир", "Thu, 18 Dec 2025 12:00:00 +0300",
+                        at, at, "g1", "ria", "РИА Новости", "https://ria.ru/export/rss2/index.xml"),
+                new NewsItemPayload(null, null, null, null, null, null, null, null, "other", "Other", "https://other"),
+                new NewsItemPayload("t", "d", null, null, "", Instant.ofEpochSecond(-5), at, "g3", "other", "Other", "https://other"),
+                new NewsItemPayload("t", "d", null, null, "", at, at, "g4", "ria", "РИА Новости",
+                        "https://ria.ru/export/rss2/index.xml", "<b>t</b>")
+        );
+        NewsBatchEvent batch = new NewsBatchEvent("fetch-1", at, "ria", "РИА Новости", "https://ria.ru/export/rss2/index.xml", items, null);
+
+        assertThat(deserializer.deserialize("t", serializer.serialize("t", batch))).isEqualTo(batch);
+
+        NewsBatchEvent failed = new NewsBatchEvent("fetch-1", at, "ria", "RIA", "https://ria", null, "HTTP 503");
+        assertThat(deserializer.deserialize("t", serializer.serialize("t", failed))).isEqualTo(failed);
+    }
+
+    @Test
+    void item_and_fetch_complete_events_round_trip() {
+        Instant at = Instant.parse("2025-12-18T12:00:00Z");
+        NewsItemPayload item = new NewsItemPayload("t", "d", "l", "c", "raw", at, at, "g", "s", "S", "https://s");
+        FetchCompleteEvent done = new FetchCompleteEvent("f", at, "s", "S", "https://s", 42, null);
+
+        assertThat(deserializer.deserialize("t", serializer.serialize("t", item))).isEqualTo(item);
+        assertThat(deserializer.deserialize("t", serializer.serialize("t", done))).isEqualTo(done);
+    }
+
+    @Test
+    void binary_batches_are_much_smaller_than_json() {
+        Instant at = Instant.parse("2025-12-18T12:00:00Z");
+        List<NewsItemPayload> items = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            items.add(new NewsItemPayload("Новость номер " + i, "Короткое описание " + i, "https://lenta.ru/news/" + i, "Россия",
+                    "Thu, 18 Dec 2025 12:00:00 +0300", at.plusSeconds(i), at, "https://lenta.ru/news/" + i,
+                    "lenta", "Лента.ру", "https://lenta.ru/rss"));
+        }
+        NewsBatchEvent batch = new NewsBatchEvent("0f8fad5b-d9cb-469f-a165-70867728950e", at, "lenta", "Лента.ру", "https://lenta.ru/rss", items, null);
+
+        try (JsonSerializer<Object> json = new JsonSerializer<>()) {
+            int jsonSize = json.serialize("t", batch).length;
+            int binarySize = serializer.serialize("t", batch).length;
+            assertThat(binarySize * 2).isLessThan(jsonSize);
+        }
+    }
+
+    @Test
+    void corrupt_or_foreign_payloads_are_rejected() {
+        byte[] data = serializer.serialize("t", new FetchCompleteEvent("f", Instant.now(), "s", "S", "u", 1, null));
+
+        assertThatThrownBy(() -> deserializer.deserialize("t", Arrays.copyOf(data, data.length - 3)))
+                .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> deserializer.deserialize("t", "{\"fetchId\":\"f\"}".getBytes()))
+                .isInstanceOf(SerializationException.class);
+        assertThatThrownBy(() -> serializer.serialize("t", "plain string"))
+                .isInstanceOf(SerializationException.class);
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.newshub.ingestor.kafka;
+
+import org.example.newshub.common.kafka.FetchCompleteEvent;
+import org.example.newshub.common.kafka.ItemKey;
+import org.example.newshub.common.kafka.NewsBatchEvent;
+import org.example.newshub.common.kafka.NewsItemPayload;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class NewsKafkaPublisherTest {
+
+    private static final BatchSpool NO_SPOOL = new BatchSpool(false, null, 0, 0);
+
+    @TempDir
+    Path spoolDir;
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> template = mock(KafkaTemplate.class);
+    private final NewsKafkaPublisher publisher = new NewsKafkaPublisher(template, NO_SPOOL, "news", "items", "done", "batch", 10);
+
+    @Test
+    void publish_tracks_acks_failures_and_send_exceptions() {
+        when(template.send(eq("news"), eq("ok"), any()))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+        when(template.send(eq("news"), eq("nack"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("not enough replicas")));
+        when(template.send(eq("news"), eq("throws"), any()))
+                .thenThrow(new IllegalStateException("producer closed"));
+
+        DeliveryTracker tracker = new DeliveryTracker();
+        tracker.track(publisher.publish(batch("ok")));
+        tracker.track(publisher.publish(batch("nack")));
+        tracker.track(publisher.publish(batch("throws")));
+
+        assertThat(tracker.await(Duration.ofSeconds(1))).isEqualTo(new DeliveryTracker.Deliveries(1, 0, 2));
+    }
+
+    @Test
+    void unconfirmed_deliveries_count_as_failed_after_the_timeout() {
+        DeliveryTracker tracker = new DeliveryTracker();
+        tracker.track(CompletableFuture.completedFuture(NewsKafkaPublisher.Delivery.ACKED));
+        tracker.track(CompletableFuture.completedFuture(NewsKafkaPublisher.Delivery.SPOOLED));
+        tracker.track(new CompletableFuture<>());
+
+        assertThat(tracker.await(Duration.ofMillis(100))).isEqualTo(new DeliveryTracker.Deliveries(1, 1, 1));
+    }
+
+    @Test
+    void item_mode_sends_one_record_per_item_keyed_by_item_key_then_fetch_complete() {
+        NewsKafkaPublisher items = new NewsKafkaPublisher(template, NO_SPOOL, "news", "items", "done", "item", 10);
+        when(template.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+
+        Instant now = Instant.now();
+        NewsItemPayload a = new NewsItemPayload("A", "d", "https://x/a", null, "", now, now, "ga", "src", "Src", "https://x");
+        NewsItemPayload b = new NewsItemPayload("B", "d", "https://x/b", null, "", now, now, "gb", "src", "Src", "https://x");
+        NewsBatchEvent batch = new NewsBatchEvent("f", now, "src", "Src", "https://x", List.of(a, b), null);
+
+        assertThat(items.publish(batch)).succeedsWithin(Duration.ofSeconds(1));
+
+        InOrder order = inOrder(template);
+        order.verify(template).send("items", ItemKey.of(a), a);
+        order.verify(template).send("items", ItemKey.of(b), b);
+        order.verify(template).send("done", "src", new FetchCompleteEvent("f", now, "src", "Src", "https://x", 2, null));
+        verify(template, never()).send(eq("news"), anyString(), any());
+    }
+
+    @Test
+    void item_mode_reports_fetch_errors_on_the_control_event_only() {
+        NewsKafkaPublisher items = new NewsKafkaPublisher(template, NO_SPOOL, "news", "items", "done", "item", 10);
+        when(template.send(anyString(), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+
+        NewsBatchEvent failed = new NewsBatchEvent("f", Instant.now(), "src", "Src", "https://x", List.of(), "HTTP 503");
+        items.publish(failed).join();
+
+        verify(template).send(eq("done"), eq("src"), argThat(e -> e instanceof FetchCompleteEvent c && "HTTP 503".equals(c.error())));
+        verify(template, never()).send(eq("items"), anyString(), any());
+    }
+
+    @Test
+    void unacknowledged_batches_are_spooled_and_replayed_in_order_once_kafka_is_back() {
+        BatchSpool spool = new BatchSpool(true, spoolDir.toString(), 0, 0);
+        NewsKafkaPublisher spooling = new NewsKafkaPublisher(template, spool, "news", "items", "done", "batch", 10);
+        when(template.send(eq("news"), anyString(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        assertThat(spooling.publish(batch("a"))).succeedsWithin(Duration.ofSeconds(1)).isEqualTo(NewsKafkaPublisher.Delivery.SPOOLED);
+        assertThat(spooling.publish(batch("b"))).succeedsWithin(Duration.ofSeconds(1)).isEqualTo(NewsKafkaPublisher.Delivery.SPOOLED);
+        // "b" went straight to the spool behind "a"
+        verify(template, times(1)).send(eq("news"), anyString(), any());
+
+        spooling.replaySpool();
+        assertThat(spool.pending()).isEqualTo(2);
+
+        reset(template);
+        when(template.send(eq("news"), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult<>(null, null)));
+        spooling.replaySpool();
+
+        InOrder order = inOrder(template);
+        order.verify(template).send(eq("news"), eq("a"), any());
+        order.verify(template).send(eq("news"), eq("b"), any());
+        assertThat(spool.isEmpty()).isTrue();
+    }
+
+    private static NewsBatchEvent batch(String sourceId) {
+        return new NewsBatchEvent("f", Instant.now(), sourceId, sourceId, "https://" + sourceId, List.of(), null);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.newshub.ingestor.service;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exception-free {@link DateParsing} vs the previous exception-driven chain, on the date
+ * shapes our feeds actually send. Not a test: run {@link #main} from the IDE, or
+ * {@code java -cp <test classpath> org.openjdk.jmh.Main DateParsingBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DateParsingBenchmark {
+
+    @Param({"Tue, 03 Dec 2024 14:05:00 GMT", "Tue, 03 Dec 2024 14:05:00 +0300", "2024-12-03T14:05:00+03:00",
+            "2024-12-03 14:05:00", "03.12.2024 14:05", "3 декабря 2024, 14:05"})
+    public String raw;
+
+    private final DateParsing.FormatCache cache = new DateParsing.FormatCache();
+
+    @Benchmark
+    public void legacy(Blackhole bh) {
+        bh.consume(legacyParse(raw));
+    }
+
+    @Benchmark
+    public void sniffing(Blackhole bh) {
+        bh.consume(DateParsing.tryParseInstant(raw));
+    }
+
+    @Benchmark
+    public void cachedPerFeed(Blackhole bh) {
+        bh.consume(cache.parse("feed", raw));
+    }
+
+    /** The implementation this benchmark replaced. */
+    static Instant legacyParse(String raw) {
+        if (raw == null) return null;
+        String s = raw.trim();
+        if (s.isEmpty()) return null;
+
+        try {
+            return ZonedDateTime.parse(s, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        } catch (DateTimeParseException ignored) {}
+
+        try {
+            return Instant.parse(s);
+        } catch (DateTimeParseException ignored) {}
+
+        List<DateTimeFormatter> fmts = List.of(
+                DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"),
+                DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss")
+        );
+
+        for (DateTimeFormatter f : fmts) {
+            try {
+                LocalDateTime ldt = LocalDateTime.parse(s, f);
+                return ldt.atZone(ZoneId.systemDefault()).toInstant();
+            } catch (DateTimeParseException ignored) {}
+        }
+
+        return null;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DateParsingBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -28,5 +28,57 @@ class DateParsingTest {
         assertThat(DateParsing.tryParseInstant(null)).isNull();
         assertThat(DateParsing.tryParseInstant("   ")).isNull();
         assertThat(DateParsing.tryParseInstant("not a date")).isNull();
+        assertThat(DateParsing.tryParseInstant("Tue, 03 Dec 2024 14:05:00 EST +1800")).isNull();
+        assertThat(DateParsing.tryParseInstant("Tue, 03 Dec 2024 14:05:00 MSK+18")).isNull();
+    }
+
+    @Test
+    void parses_rfc822_variants_and_numeric_or_named_zones() {
+        Instant expected = Instant.parse("2024-12-03T11:05:00Z");
+        assertThat(DateParsing.tryParseInstant("Tue, 03 Dec 2024 14:05:00 +0300")).isEqualTo(expected);
+        assertThat(DateParsing.tryParseInstant("3 Dec 2024 14:05 MSK")).isEqualTo(expected);
+        assertThat(DateParsing.tryParseInstant("Tue, 3 Dec 24 11:05:00 GMT")).isEqualTo(expected);
+        assertThat(DateParsing.tryParseInstant("Tue, 03 Dec 2024 06:05:00 EST")).isEqualTo(expected);
+        assertThat(DateParsing.tryParseInstant("Tue, 03 Dec 2024 14:05:00 GMT+3")).isEqualTo(expected);
+        assertThat(DateParsing.tryParseInstant("Tuesday, 03-Dec-2024 14:05:00 +03:00 (MSK)")).isEqualTo(expected);
+    }
+
+    @Test
+    void parses_dates_russian_feeds_emit() {
+        Instant expected = Instant.parse("2024-12-03T11:05:00Z");
+        assertThat(DateParsing.tryParseInstant("Вт, 03 дек 2024 14:05:00 +0300")).isEqualTo(expected);
+        assertThat(DateParsing.tryParseInstant("3 декабря 2024 г. в 14:05 МСК")).isEqualTo(expected);
+        assertThat(DateParsing.tryParseInstant("03 мая 2024, 14:05 +0300")).isEqualTo(Instant.parse("2024-05-03T11:05:00Z"));
+        assertThat(DateParsing.tryParseInstant("03.12.2024 14:05:00 +03:00")).isEqualTo(expected);
+        assertThat(DateParsing.tryParseInstant("2024-12-03 14:05:00 +0300")).isEqualTo(expected);
+        assertThat(DateParsing.tryParseInstant("03.12.2024")).isNotNull();
+    }
+
+    @Test
+    void parses_iso_offsets_and_fractions() {
+        assertThat(DateParsing.tryParseInstant("2024-12-03T14:05:00.5+03:00")).isEqualTo(Instant.parse("2024-12-03T11:05:00.5Z"));
+        assertThat(DateParsing.tryParseInstant("2024-12-03T14:05:00.123456789123Z")).isEqualTo(Instant.parse("2024-12-03T14:05:00.123456789Z"));
+    }
+
+    @Test
+    void rejects_impossible_values_without_throwing() {
+        assertThat(DateParsing.tryParseInstant("Tue, 31 Feb 2024 14:05:00 GMT")).isNull();
+        assertThat(DateParsing.tryParseInstant("2024-13-03T14:05:00Z")).isNull();
+        assertThat(DateParsing.tryParseInstant("Tue, 03 Foo 2024 14:05:00 GMT")).isNull();
+        assertThat(DateParsing.tryParseInstant("Tue, 03 Dec 2024 14:05:00 XYZ")).isNull();
+        assertThat(DateParsing.tryParseInstant("2024-12-03T25:05:00Z")).isNull();
+        assertThat(DateParsing.tryParseInstant("12345")).isNull();
+    }
+
+    @Test
+    void format_cache_learns_each_feeds_format() {
+        DateParsing.FormatCache cache = new DateParsing.FormatCache();
+
+        assertThat(cache.parse("ria", "03.12.2024 14:05:00 +03:00")).isEqualTo(Instant.parse("2024-12-03T11:05:00Z"));
+        assertThat(cache.format("ria")).isEqualTo(DateParsing.Format.DOTTED);
+
+        assertThat(cache.parse("ria", "Tue, 03 Dec 2024 14:05:00 GMT")).isEqualTo(Instant.parse("2024-12-03T14:05:00Z"));
+        assertThat(cache.format("ria")).isEqualTo(DateParsing.Format.RFC_822);
+        assertThat(cache.parse("ria", "garbage")).isNull();
     }
 }
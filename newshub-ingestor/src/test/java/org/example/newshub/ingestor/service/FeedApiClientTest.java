@@ -2,19 +2,31 @@ package org.example.newshub.ingestor.service;
 
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.example.newshub.common.dto.FeedDto;
+import org.example.newshub.common.kafka.FeedConfigEvent;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.web.client.RestClient;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 class FeedApiClientTest {
 
+    private static final String TWO_FEEDS = "[" +
+            "{\"id\":\"a\",\"name\":\"A\",\"url\":\"https://a/rss\"}," +
+            "{\"id\":\"b\",\"name\":\"B\",\"url\":\"https://b/rss\"}" +
+            "]";
+
     private MockWebServer server;
+    private final FeedPollPlannerTest.TestClock clock = new FeedPollPlannerTest.TestClock(Instant.parse("2025-12-18T12:00:00Z"));
 
     @BeforeEach
     void setUp() throws Exception {
@@ -36,13 +48,56 @@ class FeedApiClientTest {
                         "]")
                 .addHeader("Content-Type", "application/json"));
 
-        String baseUrl = server.url("/").toString();
-        if (baseUrl.endsWith("/")) baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
-
-        FeedApiClient client = new FeedApiClient(baseUrl, RestClient.builder());
+        FeedApiClient client = new FeedApiClient(baseUrl(), RestClient.builder(), false, 0);
 
         List<FeedDto> feeds = client.selectedFeeds();
         assertThat(feeds).hasSize(2);
         assertThat(feeds).extracting(FeedDto::id).containsExactly("a", "b");
     }
+
+    @Test
+    void revalidates_with_the_etag_and_keeps_the_last_list_while_the_api_is_down() throws Exception {
+        server.enqueue(new MockResponse().setBody(TWO_FEEDS)
+                .addHeader("Content-Type", "application/json")
+                .addHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setResponseCode(304).addHeader("ETag", "\"v1\""));
+        server.enqueue(new MockResponse().setResponseCode(503));
+        FeedApiClient client = new FeedApiClient(baseUrl(), RestClient.builder(), false, 300, clock);
+
+        assertThat(client.selectedFeeds()).extracting(FeedDto::id).containsExactly("a", "b");
+        assertThat(client.selectedFeeds()).extracting(FeedDto::id).containsExactly("a", "b");
+        assertThat(client.selectedFeeds()).extracting(FeedDto::id).containsExactly("a", "b");
+
+        assertThat(server.takeRequest(1, TimeUnit.SECONDS).getHeader("If-None-Match")).isNull();
+        RecordedRequest second = server.takeRequest(1, TimeUnit.SECONDS);
+        assertThat(second.getHeader("If-None-Match")).isEqualTo("\"v1\"");
+        assertThat(server.getRequestCount()).isEqualTo(3);
+    }
+
+    @Test
+    void pushed_list_is_used_without_calling_the_api_until_it_is_stale() {
+        FeedApiClient client = new FeedApiClient(baseUrl(), RestClient.builder(), true, 300, clock);
+        client.accept(new FeedConfigEvent("v2", clock.instant(), List.of(new FeedDto("c", "C", "https://c/rss"))));
+
+        assertThat(client.selectedFeeds()).extracting(FeedDto::id).containsExactly("c");
+        assertThat(server.getRequestCount()).isZero();
+
+        clock.advance(Duration.ofMinutes(6));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        assertThat(client.selectedFeeds()).extracting(FeedDto::id).containsExactly("c");
+        assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void without_a_known_list_an_api_failure_is_reported() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+        FeedApiClient client = new FeedApiClient(baseUrl(), RestClient.builder(), true, 300, clock);
+
+        assertThatThrownBy(client::selectedFeeds).isInstanceOf(RuntimeException.class);
+    }
+
+    private String baseUrl() {
+        String baseUrl = server.url("/").toString();
+        return baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+    }
 }
@@ -0,0 +1,51 @@
+package org.example.newshub.ingestor.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedCircuitBreakersTest {
+
+    private final FeedPollPlannerTest.TestClock clock = new FeedPollPlannerTest.TestClock(Instant.parse("2025-12-18T12:00:00Z"));
+    private final FeedCircuitBreakers breakers = new FeedCircuitBreakers(2, 60, 600, clock);
+
+    @Test
+    void opens_after_threshold_and_backs_off_exponentially() {
+        breakers.recordFailure("tut", "HTTP 404");
+        assertThat(breakers.allow("tut")).isTrue();
+
+        breakers.recordFailure("tut", "HTTP 404");
+        assertThat(breakers.state("tut")).isEqualTo(FeedCircuitBreakers.State.OPEN);
+        assertThat(breakers.allow("tut")).isFalse();
+        assertThat(breakers.snapshot().get(0).openUntil()).isEqualTo(clock.instant().plusSeconds(60));
+
+        clock.advance(Duration.ofSeconds(60));
+        assertThat(breakers.allow("tut")).isTrue();
+        assertThat(breakers.allow("tut")).as("only one half-open probe").isFalse();
+
+        breakers.recordFailure("tut", "HTTP 404");
+        assertThat(breakers.snapshot().get(0).openUntil()).isEqualTo(clock.instant().plusSeconds(120));
+    }
+
+    @Test
+    void successful_probe_closes_the_circuit() {
+        breakers.recordFailure("reuters", "timeout");
+        breakers.recordFailure("reuters", "timeout");
+        clock.advance(Duration.ofSeconds(60));
+
+        assertThat(breakers.allow("reuters")).isTrue();
+        breakers.recordSuccess("reuters");
+
+        assertThat(breakers.state("reuters")).isEqualTo(FeedCircuitBreakers.State.CLOSED);
+        assertThat(breakers.snapshot()).isEmpty();
+    }
+
+    @Test
+    void backoff_is_capped() {
+        for (int i = 0; i < 12; i++) breakers.recordFailure("dead", "x");
+        assertThat(breakers.snapshot().get(0).openUntil()).isEqualTo(clock.instant().plusSeconds(600));
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.newshub.ingestor.service;
+
+import org.example.newshub.common.dto.FeedDto;
+import org.example.newshub.common.kafka.NewsBatchEvent;
+import org.example.newshub.common.kafka.NewsItemPayload;
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedPollPlannerTest {
+
+    private final TestClock clock = new TestClock(Instant.parse("2025-12-18T12:00:00Z"));
+    private final FeedPollPlanner planner = new FeedPollPlanner(60, 3600, 300, 2, 0, clock);
+
+    private final FeedDto wire = new FeedDto("ria", "RIA", "https://ria.example/rss");
+    private final FeedDto blog = new FeedDto("blog", "Blog", "https://blog.example/rss");
+
+    @Test
+    void new_feeds_are_due_immediately_and_then_wait_for_their_interval() {
+        assertThat(planner.due(List.of(wire, blog))).containsExactly(wire, blog);
+        assertThat(planner.due(List.of(wire, blog))).isEmpty();
+
+        clock.advance(Duration.ofSeconds(300));
+        assertThat(planner.due(List.of(wire, blog))).containsExactlyInAnyOrder(wire, blog);
+    }
+
+    @Test
+    void busy_feeds_are_polled_more_often_than_quiet_ones() {
+        planner.due(List.of(wire, blog));
+        planner.record(fetched(wire, 0, 20));
+        planner.record(fetched(blog, 0, 20));
+
+        for (int poll = 1; poll <= 5; poll++) {
+            clock.advance(Duration.ofSeconds(300));
+            planner.record(fetched(wire, poll * 10, 20));
+            planner.record(new FeedFetch(blog, null, FeedFetch.Hints.NONE));
+        }
+
+        Duration wireInterval = planner.interval("ria").orElseThrow();
+        Duration blogInterval = planner.interval("blog").orElseThrow();
+        assertThat(wireInterval).isLessThan(Duration.ofSeconds(120));
+        assertThat(blogInterval).isGreaterThan(Duration.ofSeconds(600));
+    }
+
+    @Test
+    void ttl_and_max_age_raise_the_interval_floor() {
+        planner.due(List.of(wire));
+        planner.record(new FeedFetch(wire, batch(wire, 0, 5), new FeedFetch.Hints(Duration.ofMinutes(30), Set.of(), null)));
+        clock.advance(Duration.ofSeconds(60));
+        planner.record(new FeedFetch(wire, batch(wire, 50, 5), new FeedFetch.Hints(null, Set.of(), Duration.ofMinutes(20))));
+
+        assertThat(planner.interval("ria")).contains(Duration.ofMinutes(30));
+    }
+
+    @Test
+    void failed_polls_keep_the_current_interval() {
+        planner.due(List.of(wire));
+        NewsBatchEvent error = FeedFetcher.errorBatch("f", clock.instant(), wire, "boom");
+        planner.record(new FeedFetch(wire, error, FeedFetch.Hints.NONE));
+
+        assertThat(planner.interval("ria")).contains(Duration.ofSeconds(300));
+        assertThat(planner.nextPollAt("ria")).contains(clock.instant().plusSeconds(300));
+    }
+
+    @Test
+    void skip_hours_push_the_next_poll_past_the_skipped_window() {
+        Instant at = Instant.parse("2025-12-18T02:30:00Z");
+        assertThat(FeedPollPlanner.avoidSkipHours(at, Set.of(2, 3)))
+                .isEqualTo(Instant.parse("2025-12-18T04:00:00Z"));
+        assertThat(FeedPollPlanner.avoidSkipHours(at, Set.of(5))).isEqualTo(at);
+    }
+
+    private FeedFetch fetched(FeedDto feed, int firstGuid, int count) {
+        return new FeedFetch(feed, batch(feed, firstGuid, count), FeedFetch.Hints.NONE);
+    }
+
+    private NewsBatchEvent batch(FeedDto feed, int firstGuid, int count) {
+        List<NewsItemPayload> items = IntStream.range(firstGuid, firstGuid + count)
+                .mapToObj(i -> new NewsItemPayload("t" + i, "d", null, null, "", null, clock.instant(),
+                        "g" + i, feed.id(), feed.name(), feed.url()))
+                .toList();
+        return new NewsBatchEvent("f", clock.instant(), feed.id(), feed.name(), feed.url(), items, null);
+    }
+
+    static final class TestClock extends Clock {
+        private Instant now;
+
+        TestClock(Instant now) { this.now = now; }
+
+        void advance(Duration d) { now = now.plus(d); }
+
+        @Override public ZoneId getZone() { return ZoneOffset.UTC; }
+        @Override public Clock withZone(ZoneId zone) { return this; }
+        @Override public Instant instant() { return now; }
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.newshub.ingestor.service;
+
+import org.example.newshub.common.dto.FeedDto;
+import org.example.newshub.ingestor.kafka.KafkaShardMembership;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FeedShardsTest {
+
+    private static final List<FeedDto> FEEDS = IntStream.range(0, 1000)
+            .mapToObj(i -> new FeedDto("feed-" + i, "Feed " + i, "https://f" + i + "/rss"))
+            .toList();
+
+    @Test
+    void static_shards_cover_every_feed_exactly_once_and_roughly_evenly() {
+        Map<String, Integer> owner = new HashMap<>();
+        for (int r = 0; r < 4; r++) {
+            for (FeedDto f : new FeedShards("static", r, 4, Optional.empty()).owned(FEEDS)) {
+                assertThat(owner.put(f.id(), r)).isNull();
+            }
+        }
+
+        assertThat(owner).hasSize(FEEDS.size());
+        for (int r = 0; r < 4; r++) {
+            int mine = r;
+            assertThat(owner.values().stream().filter(v -> v == mine).count()).isBetween(200L, 300L);
+        }
+    }
+
+    @Test
+    void adding_a_replica_only_moves_feeds_to_it() {
+        int moved = 0;
+        for (FeedDto f : FEEDS) {
+            int before = FeedShards.rendezvous(f.id(), 4);
+            int after = FeedShards.rendezvous(f.id(), 5);
+            if (before != after) {
+                assertThat(after).isEqualTo(4);
+                moved++;
+            }
+        }
+        assertThat(moved).isBetween(150, 250);
+    }
+
+    @Test
+    void kafka_mode_owns_the_feeds_of_its_assigned_partitions() {
+        KafkaShardMembership membership = mock(KafkaShardMembership.class);
+        when(membership.partitionCount()).thenReturn(8);
+        when(membership.assigned()).thenReturn(Set.of(0, 1));
+        FeedShards shards = new FeedShards("kafka", 0, 1, Optional.of(membership));
+
+        assertThat(shards.owned(FEEDS)).isNotEmpty()
+                .allMatch(f -> FeedShards.partition(f.id(), 8) < 2);
+
+        when(membership.assigned()).thenReturn(Set.of());
+        assertThat(shards.owned(FEEDS)).isEmpty();
+    }
+
+    @Test
+    void none_owns_everything() {
+        assertThat(new FeedShards("none", 0, 1, Optional.empty()).owned(FEEDS)).isSameAs(FEEDS);
+    }
+}
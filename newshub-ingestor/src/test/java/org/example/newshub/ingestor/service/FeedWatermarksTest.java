@@ -0,0 +1,72 @@
+package org.example.newshub.ingestor.service;
+
+import org.example.newshub.common.kafka.NewsBatchEvent;
+import org.example.newshub.common.kafka.NewsItemPayload;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FeedWatermarksTest {
+
+    private static final Instant NOW = Instant.parse("2024-12-03T12:00:00Z");
+
+    private final FeedWatermarks watermarks = new FeedWatermarks(true, 60);
+
+    @Test
+    void watermark_keeps_the_newest_timestamp_and_its_guids() {
+        watermarks.recordOrder("a", true);
+        watermarks.advance(batch(item("g1", NOW.minusSeconds(60)), item("g2", NOW), item("g3", NOW)));
+        watermarks.advance(batch(item("g4", NOW)));
+
+        FeedWatermarks.Watermark mark = watermarks.cutoff("a");
+        assertThat(mark.newest()).isEqualTo(NOW);
+        assertThat(mark.guids()).containsExactlyInAnyOrder("g2", "g3", "g4");
+        assertThat(mark.covers(NOW.minusSeconds(1), "new")).isTrue();
+        assertThat(mark.covers(NOW, "g3")).isTrue();
+        assertThat(mark.covers(NOW, "new")).isFalse();
+        assertThat(mark.covers(null, "g3")).isFalse();
+    }
+
+    @Test
+    void no_cutoff_until_the_feed_is_known_to_be_ordered() {
+        watermarks.advance(batch(item("g1", NOW)));
+        assertThat(watermarks.cutoff("a")).isNull();
+
+        watermarks.recordOrder("a", true);
+        assertThat(watermarks.cutoff("a")).isNotNull();
+
+        watermarks.recordOrder("a", false);
+        assertThat(watermarks.cutoff("a")).isNull();
+    }
+
+    @Test
+    void far_future_dates_and_undated_items_do_not_move_the_watermark() {
+        watermarks.recordOrder("a", true);
+        watermarks.advance(batch(item("g1", NOW), item("future", NOW.plus(Duration.ofDays(1))), item("undated", null)));
+
+        assertThat(watermarks.cutoff("a").guids()).isEqualTo(Set.of("g1"));
+    }
+
+    @Test
+    void retain_forgets_unselected_feeds() {
+        watermarks.recordOrder("a", true);
+        watermarks.advance(batch(item("g1", NOW)));
+
+        watermarks.retain(List.of("b"));
+
+        assertThat(watermarks.cutoff("a")).isNull();
+    }
+
+    private static NewsBatchEvent batch(NewsItemPayload... items) {
+        return new NewsBatchEvent("f1", NOW, "a", "A", "https://a/rss", List.of(items), null);
+    }
+
+    private static NewsItemPayload item(String guid, Instant publishedAt) {
+        return new NewsItemPayload(guid, "d", null, null, "", publishedAt, NOW, guid, "a", "A", "https://a/rss");
+    }
+}
@@ -1,5 +1,9 @@
 package org.example.newshub.ingestor.service;
 
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
 import org.example.newshub.common.dto.FeedDto;
 import org.example.newshub.common.kafka.NewsBatchEvent;
 import org.example.newshub.common.kafka.NewsItemPayload;
@@ -8,9 +12,14 @@ import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -22,7 +31,8 @@ class IngestorServiceTest {
         RssFetchService fetch = mock(RssFetchService.class);
         NewsKafkaPublisher publisher = mock(NewsKafkaPublisher.class);
 
-        IngestorService service = new IngestorService(feedApi, fetch, publisher);
+        IngestorService service = new IngestorService(feedApi, fetch, publisher, new SeenItems(true, 100, null), new FeedWatermarks(true, 60), new FeedShards("none", 0, 1, Optional.empty()), new WebSubSubscriptions("", 86400, 360), 5);
+        when(publisher.publish(any())).thenReturn(CompletableFuture.completedFuture(NewsKafkaPublisher.Delivery.ACKED));
 
         List<FeedDto> feeds = List.of(
                 new FeedDto("a", "A", "https://a/rss"),
@@ -67,16 +77,181 @@ class IngestorServiceTest {
 
 
 
-        when(fetch.fetch(anyString(), eq(feeds))).thenReturn(List.of(okBatch, errBatch));
+        when(fetch.fetch(anyString(), eq(feeds), any(), any())).thenAnswer(inv -> {
+            Consumer<FeedFetch> sink = inv.getArgument(2);
+            sink.accept(fetched(okBatch));
+            sink.accept(fetched(errBatch));
+            return new RssFetchService.FetchSummary(3, 2, 1, 0, 0);
+        });
 
         IngestorService.RefreshRun run = service.refreshOnce();
 
         assertThat(run.batches()).isEqualTo(2);
+        assertThat(run.unchanged()).isEqualTo(1);
+        assertThat(run.acked()).isEqualTo(2);
+        assertThat(run.failed()).isZero();
         assertThat(run.ok()).isTrue();
 
         verify(feedApi).selectedFeeds();
-        verify(fetch).fetch(anyString(), eq(feeds));
+        verify(fetch).fetch(anyString(), eq(feeds), any(), any());
         verify(publisher).publish(okBatch);
         verify(publisher).publish(errBatch);
     }
+
+    @Test
+    void refreshFeeds_reports_batches_kafka_did_not_acknowledge() {
+        RssFetchService fetch = mock(RssFetchService.class);
+        NewsKafkaPublisher publisher = mock(NewsKafkaPublisher.class);
+        IngestorService service = new IngestorService(mock(FeedApiClient.class), fetch, publisher, new SeenItems(true, 100, null), new FeedWatermarks(true, 60), new FeedShards("none", 0, 1, Optional.empty()), new WebSubSubscriptions("", 86400, 360), 1);
+
+        List<FeedDto> feeds = List.of(new FeedDto("a", "A", "https://a/rss"), new FeedDto("b", "B", "https://b/rss"));
+        NewsBatchEvent a = new NewsBatchEvent("f", Instant.now(), "a", "A", "https://a/rss", List.of(), null);
+        NewsBatchEvent b = new NewsBatchEvent("f", Instant.now(), "b", "B", "https://b/rss", List.of(), null);
+        when(publisher.publish(a)).thenReturn(CompletableFuture.completedFuture(NewsKafkaPublisher.Delivery.ACKED));
+        when(publisher.publish(b)).thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+        when(fetch.fetch(anyString(), eq(feeds), any(), any())).thenAnswer(inv -> {
+            Consumer<FeedFetch> sink = inv.getArgument(2);
+            sink.accept(fetched(a));
+            sink.accept(fetched(b));
+            return new RssFetchService.FetchSummary(2, 2, 0, 0, 0);
+        });
+
+        IngestorService.RefreshRun run = service.refreshFeeds(feeds);
+
+        assertThat(run.acked()).isEqualTo(1);
+        assertThat(run.failed()).isEqualTo(1);
+        assertThat(run.ok()).isFalse();
+        assertThat(run.error()).contains("1 of 2 batches");
+    }
+
+    @Test
+    void refreshFeeds_publishes_only_items_not_acknowledged_before() {
+        RssFetchService fetch = mock(RssFetchService.class);
+        NewsKafkaPublisher publisher = mock(NewsKafkaPublisher.class);
+        IngestorService service = new IngestorService(mock(FeedApiClient.class), fetch, publisher, new SeenItems(true, 100, null), new FeedWatermarks(true, 60), new FeedShards("none", 0, 1, Optional.empty()), new WebSubSubscriptions("", 86400, 360), 1);
+
+        Instant now = Instant.now();
+        NewsItemPayload a = new NewsItemPayload("A", "d", null, null, "", now, now, "ga", "src", "S", "https://s");
+        NewsItemPayload b = new NewsItemPayload("B", "d", null, null, "", now, now, "gb", "src", "S", "https://s");
+        List<FeedDto> feeds = List.of(new FeedDto("src", "S", "https://s"));
+        List<NewsBatchEvent> published = new java.util.ArrayList<>();
+        when(publisher.publish(any())).thenAnswer(inv -> {
+            published.add(inv.getArgument(0));
+            return published.size() == 2
+                    ? CompletableFuture.failedFuture(new IllegalStateException("broker down"))
+                    : CompletableFuture.completedFuture(NewsKafkaPublisher.Delivery.ACKED);
+        });
+
+        when(fetch.fetch(anyString(), eq(feeds), any(), any())).thenAnswer(inv -> {
+            Consumer<FeedFetch> sink = inv.getArgument(2);
+            int run = published.size();
+            List<NewsItemPayload> items = run == 0 ? List.of(a) : List.of(a, b);
+            sink.accept(fetched(new NewsBatchEvent("f" + run, now, "src", "S", "https://s", items, null)));
+            return new RssFetchService.FetchSummary(1, 1, 0, 0, 0);
+        });
+
+        service.refreshFeeds(feeds);
+        service.refreshFeeds(feeds);
+        service.refreshFeeds(feeds);
+
+        assertThat(published).extracting(p -> p.items().stream().map(NewsItemPayload::guid).toList())
+                .containsExactly(List.of("ga"), List.of("gb"), List.of("gb"));
+    }
+
+    @Test
+    void spooled_batches_are_reported_apart_and_their_items_are_not_marked_delivered() {
+        RssFetchService fetch = mock(RssFetchService.class);
+        NewsKafkaPublisher publisher = mock(NewsKafkaPublisher.class);
+        IngestorService service = new IngestorService(mock(FeedApiClient.class), fetch, publisher, new SeenItems(true, 100, null), new FeedWatermarks(true, 60), new FeedShards("none", 0, 1, Optional.empty()), new WebSubSubscriptions("", 86400, 360), 1);
+
+        Instant now = Instant.now();
+        NewsItemPayload a = new NewsItemPayload("A", "d", null, null, "", now, now, "ga", "src", "S", "https://s");
+        List<FeedDto> feeds = List.of(new FeedDto("src", "S", "https://s"));
+        List<NewsBatchEvent> published = new java.util.ArrayList<>();
+        when(publisher.publish(any())).thenAnswer(inv -> {
+            published.add(inv.getArgument(0));
+            return CompletableFuture.completedFuture(NewsKafkaPublisher.Delivery.SPOOLED);
+        });
+        when(fetch.fetch(anyString(), eq(feeds), any(), any())).thenAnswer(inv -> {
+            Consumer<FeedFetch> sink = inv.getArgument(2);
+            sink.accept(fetched(new NewsBatchEvent("f", now, "src", "S", "https://s", List.of(a), null)));
+            return new RssFetchService.FetchSummary(1, 1, 0, 0, 0);
+        });
+
+        IngestorService.RefreshRun run = service.refreshFeeds(feeds);
+        service.refreshFeeds(feeds);
+
+        assertThat(run.spooled()).isEqualTo(1);
+        assertThat(run.acked()).isZero();
+        assertThat(run.failed()).isZero();
+        assertThat(published).extracting(p -> p.items().size()).containsExactly(1, 1);
+    }
+
+    @Test
+    void refreshOnce_reports_the_selected_feeds_left_to_other_replicas() {
+        FeedApiClient feedApi = mock(FeedApiClient.class);
+        RssFetchService fetch = mock(RssFetchService.class);
+        FeedShards shards = new FeedShards("static", 0, 2, Optional.empty());
+        IngestorService service = new IngestorService(feedApi, fetch, mock(NewsKafkaPublisher.class), new SeenItems(true, 100, null), new FeedWatermarks(true, 60), shards, new WebSubSubscriptions("", 86400, 360), 1);
+
+        List<FeedDto> feeds = java.util.stream.IntStream.range(0, 20)
+                .mapToObj(i -> new FeedDto("feed-" + i, "F", "https://f" + i + "/rss")).toList();
+        List<FeedDto> owned = shards.owned(feeds);
+        when(feedApi.selectedFeeds()).thenReturn(feeds);
+        when(fetch.fetch(anyString(), eq(owned), any(), any())).thenReturn(new RssFetchService.FetchSummary(owned.size(), 0, owned.size(), 0, 0));
+
+        IngestorService.RefreshRun run = service.refreshOnce();
+
+        assertThat(owned).hasSizeLessThan(feeds.size());
+        assertThat(run.unowned()).isEqualTo(feeds.size() - owned.size());
+    }
+
+    @Test
+    void a_batch_kafka_did_not_take_is_read_again_even_where_the_feed_answers_304() throws Exception {
+        String rss = """
+                <?xml version="1.0" encoding="UTF-8"?>
+                <rss version="2.0"><channel><title>T</title>
+                  <item><title>Item</title><guid>g</guid></item>
+                </channel></rss>
+                """;
+        try (MockWebServer server = new MockWebServer()) {
+            server.setDispatcher(new Dispatcher() {
+                @Override
+                public MockResponse dispatch(RecordedRequest request) {
+                    if ("\"v1\"".equals(request.getHeader("If-None-Match"))) return new MockResponse().setResponseCode(304);
+                    return new MockResponse().addHeader("ETag", "\"v1\"").setBody(rss);
+                }
+            });
+            server.start();
+
+            WebSubSubscriptions websub = new WebSubSubscriptions("", 86400, 360);
+            FeedWatermarks watermarks = new FeedWatermarks(true, 60);
+            FeedFetcher fetcher = new FeedFetcher(new FeedHttpClient(5, 5, 10, 5_000_000), new ConditionalGetCache(), watermarks, new PayloadNormalizer(true, 300, 600), websub);
+            RssFetchService fetch = new RssFetchService(fetcher, new FeedPollPlanner(websub, 60, 3600, 300, 2, 0.1), new FeedCircuitBreakers(3, 60, 3600), 1, 1, 1, 60);
+            NewsKafkaPublisher publisher = mock(NewsKafkaPublisher.class);
+            when(publisher.publish(any()))
+                    .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")))
+                    .thenReturn(CompletableFuture.completedFuture(NewsKafkaPublisher.Delivery.ACKED));
+            IngestorService service = new IngestorService(mock(FeedApiClient.class), fetch, publisher, new SeenItems(true, 100, null), watermarks, new FeedShards("none", 0, 1, Optional.empty()), websub, 1);
+            List<FeedDto> feeds = List.of(new FeedDto("a", "A", server.url("/rss").toString()));
+
+            try {
+                assertThat(service.refreshFeeds(feeds).failed()).isEqualTo(1);
+                IngestorService.RefreshRun retried = service.refreshFeeds(feeds);
+                assertThat(retried.acked()).isEqualTo(1);
+                assertThat(service.refreshFeeds(feeds).unchanged()).isEqualTo(1);
+            } finally {
+                fetch.shutdown();
+            }
+
+            assertThat(server.takeRequest().getHeader("If-None-Match")).isNull();
+            assertThat(server.takeRequest().getHeader("If-None-Match")).as("after the failed publish").isNull();
+            assertThat(server.takeRequest().getHeader("If-None-Match")).isEqualTo("\"v1\"");
+            verify(publisher, times(2)).publish(argThat(b -> b.items().size() == 1));
+        }
+    }
+
+    private static FeedFetch fetched(NewsBatchEvent batch) {
+        return new FeedFetch(new FeedDto(batch.sourceId(), batch.sourceName(), batch.sourceUrl()), batch, FeedFetch.Hints.NONE);
+    }
 }
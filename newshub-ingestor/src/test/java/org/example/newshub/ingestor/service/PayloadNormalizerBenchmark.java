@@ -0,0 +1,82 @@
+package org.example.newshub.ingestor.service;
+
+import org.example.newshub.common.kafka.NewsBinaryCodec;
+import org.example.newshub.common.kafka.NewsItemPayload;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link PayloadNormalizer} per item, and what it saves when the item is encoded for
+ * Kafka. {@code raw*} is the item as it was published before normalization; the sizes it encodes
+ * to are checked in {@link PayloadNormalizerTest}. Not a test: run
+ * {@link #main} from the IDE, or {@code java -cp <test classpath> org.openjdk.jmh.Main PayloadNormalizerBenchmark}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PayloadNormalizerBenchmark {
+
+    /** A typical news-site description: short lead wrapped in layout, an image and a tracking pixel. */
+    static final String DESCRIPTION = """
+            <div class="lead"><figure><img src="https://cdn.example.ru/img/2024/12/03/photo-1200x800.jpg" \
+            width="1200" height="800" alt="Фото: пресс-служба"/><figcaption>Фото: пресс-служба</figcaption></figure>\
+            <p>В&nbsp;Москве завершился форум, на&nbsp;котором представители отрасли обсудили развитие \
+            отечественного ПО, импортозамещение и&nbsp;подготовку кадров. Участники договорились \
+            о&nbsp;создании рабочей группы&hellip;</p><p><a href="https://example.ru/news/123?utm_source=rss\
+            &amp;utm_medium=feed&amp;utm_campaign=main">Читать далее &raquo;</a></p></div>\
+            <img src="https://counter.example.ru/hit?id=123&amp;r=rss" width="1" height="1"/>\
+            <script type="text/javascript">window.__stats && window.__stats.push({id: 123});</script>\
+            """.repeat(3);
+
+    private final PayloadNormalizer normalizer = new PayloadNormalizer(true, 300, 600);
+
+    private NewsItemPayload rawItem;
+    private NewsItemPayload normalizedItem;
+
+    @Setup
+    public void setUp() {
+        rawItem = item("Форум &laquo;Софт-2024&raquo; завершился в&nbsp;Москве", DESCRIPTION);
+        normalizedItem = item(normalizer.title(rawItem.title()), normalizer.description(rawItem.description()));
+    }
+
+    @Benchmark
+    public void normalize(Blackhole bh) {
+        bh.consume(normalizer.title(rawItem.title()));
+        bh.consume(normalizer.description(rawItem.description()));
+    }
+
+    @Benchmark
+    public void rawEncode(Blackhole bh) {
+        bh.consume(NewsBinaryCodec.encode(rawItem));
+    }
+
+    @Benchmark
+    public void normalizeAndEncode(Blackhole bh) {
+        bh.consume(NewsBinaryCodec.encode(item(normalizer.title(rawItem.title()), normalizer.description(rawItem.description()))));
+    }
+
+    @Benchmark
+    public void normalizedEncode(Blackhole bh) {
+        bh.consume(NewsBinaryCodec.encode(normalizedItem));
+    }
+
+    static NewsItemPayload item(String title, String description) {
+        Instant now = Instant.parse("2024-12-03T14:05:00Z");
+        return new NewsItemPayload(title, description, "https://example.ru/news/123", "Технологии",
+                "Tue, 03 Dec 2024 14:05:00 +0300", now, now, "https://example.ru/news/123",
+                "example", "Example", "https://example.ru/rss");
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(PayloadNormalizerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
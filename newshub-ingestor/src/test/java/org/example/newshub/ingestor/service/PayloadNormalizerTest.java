@@ -0,0 +1,60 @@
+package org.example.newshub.ingestor.service;
+
+import org.example.newshub.common.kafka.NewsBinaryCodec;
+import org.example.newshub.common.kafka.NewsItemPayload;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PayloadNormalizerTest {
+
+    private final PayloadNormalizer normalizer = new PayloadNormalizer(true, 40, 80);
+
+    @Test
+    void strips_markup_scripts_and_comments_and_collapses_whitespace() {
+        String html = """
+                <p>Первый&nbsp;абзац,
+                   <b>жирный</b> текст.</p><!-- tracking --><script>var x = "<p>";</script>
+                <img src="https://t.example/pixel.gif" alt="a > b"/><br>Второй</p>
+                """;
+
+        assertThat(normalizer.description(html)).isEqualTo("Первый абзац, жирный текст. Второй");
+    }
+
+    @Test
+    void decodes_entities_and_keeps_stray_markup_characters() {
+        assertThat(normalizer.title("Q&amp;A: 5 &lt; 7 &#8212; &#x41;&laquo;b&raquo; &bogus; & co"))
+                .isEqualTo("Q&A: 5 < 7 — A«b» &bogus; & co");
+        assertThat(normalizer.title("a < b")).isEqualTo("a < b");
+    }
+
+    @Test
+    void caps_at_a_word_boundary() {
+        String text = "слово ".repeat(40);
+
+        String capped = normalizer.description(text);
+
+        assertThat(capped).hasSizeLessThanOrEqualTo(80).endsWith("слово…");
+        assertThat(normalizer.title("x".repeat(100))).hasSize(40).endsWith("…");
+    }
+
+    @Test
+    void empty_results_become_null_and_disabled_passes_through() {
+        assertThat(normalizer.description("<div> <img src='x'> </div>")).isNull();
+        assertThat(normalizer.description(null)).isNull();
+
+        PayloadNormalizer off = new PayloadNormalizer(false, 40, 80);
+        assertThat(off.description("<b>raw</b>")).isEqualTo("<b>raw</b>");
+    }
+
+    @Test
+    void the_benchmark_description_encodes_to_a_fraction_of_its_raw_size() {
+        PayloadNormalizer benchmarked = new PayloadNormalizer(true, 300, 600);
+        NewsItemPayload raw = PayloadNormalizerBenchmark.item("Форум", PayloadNormalizerBenchmark.DESCRIPTION);
+        NewsItemPayload normalized = PayloadNormalizerBenchmark.item("Форум", benchmarked.description(raw.description()));
+
+        int rawBytes = NewsBinaryCodec.encode(raw).length;
+        int normalizedBytes = NewsBinaryCodec.encode(normalized).length;
+        assertThat(normalizedBytes).isLessThan(rawBytes / 2);
+    }
+}
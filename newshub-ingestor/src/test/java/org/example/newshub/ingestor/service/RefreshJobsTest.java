@@ -0,0 +1,137 @@
+package org.example.newshub.ingestor.service;
+
+import org.example.newshub.common.dto.FeedDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class RefreshJobsTest {
+
+    private final IngestorService ingestor = mock(IngestorService.class);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private RefreshJobs jobs = new RefreshJobs(ingestor, 1, 10, false, 0);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        jobs.shutdown();
+    }
+
+    @Test
+    void submit_returns_at_once_and_reports_per_feed_progress() {
+        when(ingestor.refreshOnce(any(RefreshJob.class))).thenAnswer(inv -> {
+            RefreshJob job = inv.getArgument(0);
+            job.feeds(List.of(new FeedDto("a", "A", "https://a/rss"), new FeedDto("b", "B", "https://b/rss")));
+            job.record(new RssFetchService.FeedResult("a", RssFetchService.Outcome.FETCHED, 5, null));
+            release.await(5, TimeUnit.SECONDS);
+            return new IngestorService.RefreshRun(job.fetchId(), 1, 0, 0, 0, 0, 1, 0, 0, null);
+        });
+
+        RefreshJob job = jobs.submit().orElseThrow().job();
+
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() -> {
+            RefreshJob.View view = jobs.find(job.fetchId()).orElseThrow().view();
+            assertThat(view.state()).isEqualTo(RefreshJob.State.RUNNING);
+            assertThat(view.totalFeeds()).isEqualTo(2);
+            assertThat(view.settledFeeds()).isEqualTo(1);
+            assertThat(view.feeds()).extracting(RssFetchService.FeedResult::outcome)
+                    .containsExactly(RssFetchService.Outcome.FETCHED, RssFetchService.Outcome.PENDING);
+        });
+
+        release.countDown();
+        await().atMost(Duration.ofSeconds(2)).untilAsserted(() ->
+                assertThat(job.view().state()).isEqualTo(RefreshJob.State.DONE));
+        assertThat(job.view().result().batches()).isEqualTo(1);
+    }
+
+    @Test
+    void submit_is_refused_while_the_concurrency_cap_is_reached() {
+        when(ingestor.refreshOnce(any(RefreshJob.class))).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new IngestorService.RefreshRun(((RefreshJob) inv.getArgument(0)).fetchId(), 0, 0, 0, 0, 0, 0, 0, 0, null);
+        });
+
+        RefreshJob first = jobs.submit().orElseThrow().job();
+        assertThat(jobs.submit()).isEmpty();
+
+        release.countDown();
+        await().atMost(Duration.ofSeconds(2)).until(() -> first.view().state() == RefreshJob.State.DONE);
+        await().atMost(Duration.ofSeconds(2)).until(() -> jobs.submit().isPresent());
+    }
+
+    @Test
+    void concurrent_triggers_join_the_job_in_flight() {
+        jobs = new RefreshJobs(ingestor, 2, 10, true, 0);
+        when(ingestor.refreshOnce(any(RefreshJob.class))).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new IngestorService.RefreshRun(((RefreshJob) inv.getArgument(0)).fetchId(), 0, 0, 0, 0, 0, 0, 0, 0, null);
+        });
+
+        RefreshJobs.Submission first = jobs.submit().orElseThrow();
+        RefreshJobs.Submission second = jobs.submit().orElseThrow();
+
+        assertThat(first.joined()).isFalse();
+        assertThat(second.joined()).isTrue();
+        assertThat(second.job()).isSameAs(first.job());
+        assertThat(jobs.inFlight()).isTrue();
+
+        release.countDown();
+        await().atMost(Duration.ofSeconds(2)).until(() -> !jobs.inFlight());
+        assertThat(jobs.submit().orElseThrow().joined()).isFalse();
+        verify(ingestor, timeout(2000).times(2)).refreshOnce(any(RefreshJob.class));
+    }
+
+    @Test
+    void triggers_within_the_min_interval_reuse_the_last_successful_job() {
+        jobs = new RefreshJobs(ingestor, 1, 10, true, 60);
+        release.countDown();
+        when(ingestor.refreshOnce(any(RefreshJob.class))).thenAnswer(inv ->
+                new IngestorService.RefreshRun(((RefreshJob) inv.getArgument(0)).fetchId(), 0, 0, 0, 0, 0, 0, 0, 0, null));
+
+        RefreshJob first = jobs.submit().orElseThrow().job();
+        await().atMost(Duration.ofSeconds(2)).until(() -> first.view().state() == RefreshJob.State.DONE);
+
+        RefreshJobs.Submission again = jobs.submit().orElseThrow();
+        assertThat(again.joined()).isTrue();
+        assertThat(again.job()).isSameAs(first);
+        verify(ingestor, times(1)).refreshOnce(any(RefreshJob.class));
+    }
+
+    @Test
+    void a_trigger_during_a_scheduled_run_joins_it() throws Exception {
+        jobs = new RefreshJobs(ingestor, 2, 10, true, 0);
+        List<FeedDto> due = List.of(new FeedDto("a", "A", "https://a/rss"));
+        CountDownLatch started = new CountDownLatch(1);
+        when(ingestor.refreshFeeds(any(RefreshJob.class), eq(due))).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new IngestorService.RefreshRun(((RefreshJob) inv.getArgument(0)).fetchId(), 1, 0, 0, 0, 0, 1, 0, 0, null);
+        });
+
+        CompletableFuture<Optional<IngestorService.RefreshRun>> tick = CompletableFuture.supplyAsync(() -> jobs.runScheduled(due));
+        assertThat(started.await(2, TimeUnit.SECONDS)).isTrue();
+
+        RefreshJobs.Submission manual = jobs.submit().orElseThrow();
+        assertThat(manual.joined()).isTrue();
+        assertThat(jobs.runScheduled(due)).as("next tick while the run is in flight").isEmpty();
+
+        release.countDown();
+        IngestorService.RefreshRun run = tick.get(2, TimeUnit.SECONDS).orElseThrow();
+        assertThat(run.fetchId()).isEqualTo(manual.job().fetchId());
+        assertThat(manual.job().view().state()).isEqualTo(RefreshJob.State.DONE);
+        verify(ingestor, times(1)).refreshFeeds(any(RefreshJob.class), eq(due));
+        verify(ingestor, never()).refreshOnce(any(RefreshJob.class));
+    }
+}
@@ -1,13 +1,26 @@
 package org.example.newshub.ingestor.service;
 
+import okhttp3.mockwebserver.Dispatcher;
 import okhttp3.mockwebserver.MockResponse;
 import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okio.Buffer;
 import org.example.newshub.common.dto.FeedDto;
+import org.example.newshub.common.kafka.ItemKey;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -26,6 +39,22 @@ class RssFetchServiceTest {
         server.shutdown();
     }
 
+    private static RssFetchService newService() {
+        return new RssFetchService(newFetcher(), newPlanner(), newBreakers(), 4, 2, 4, 60);
+    }
+
+    private static FeedFetcher newFetcher() {
+        return new FeedFetcher(new FeedHttpClient(5, 5, 10, 5_000_000), new ConditionalGetCache(), new FeedWatermarks(true, 60), new PayloadNormalizer(true, 300, 600), new WebSubSubscriptions("", 86400, 360));
+    }
+
+    private static FeedCircuitBreakers newBreakers() {
+        return new FeedCircuitBreakers(3, 60, 3600);
+    }
+
+    private static FeedPollPlanner newPlanner() {
+        return new FeedPollPlanner(new WebSubSubscriptions("", 86400, 360), 60, 3600, 300, 2, 0.1);
+    }
+
     @Test
     void fetch_parses_items_and_maps_fields() {
         String rss = """
@@ -59,7 +88,7 @@ class RssFetchServiceTest {
         String url = server.url("/rss").toString();
         FeedDto feed = new FeedDto("test-id", "Test Feed", url);
 
-        RssFetchService svc = new RssFetchService();
+        RssFetchService svc = newService();
         var events = svc.fetch("fetch-1", List.of(feed));
 
         assertThat(events).hasSize(1);
@@ -78,4 +107,294 @@ class RssFetchServiceTest {
         assertThat(b.link()).isNull();
         assertThat(b.guid()).isNotBlank();
     }
+
+    @Test
+    void fetch_runs_feeds_concurrently_and_keeps_feed_order() {
+        String rss = """
+                <?xml version=\"1.0\" encoding=\"UTF-8\"?>
+                <rss version=\"2.0\"><channel><title>T</title>
+                  <item><title>Item</title><guid>g</guid></item>
+                </channel></rss>
+                """;
+        // each request waits until the other has arrived too, so only concurrent fetches see both
+        CountDownLatch bothArrived = new CountDownLatch(2);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) throws InterruptedException {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                bothArrived.countDown();
+                bothArrived.await(5, TimeUnit.SECONDS);
+                inFlight.decrementAndGet();
+                return new MockResponse()
+                        .setResponseCode(200)
+                        .addHeader("Content-Type", "application/rss+xml; charset=utf-8")
+                        .setBody(rss);
+            }
+        });
+
+        List<FeedDto> feeds = List.of(
+                new FeedDto("a", "A", server.url("/a").toString()),
+                new FeedDto("b", "B", server.url("/b").toString())
+        );
+
+        var events = newService().fetch("fetch-1", feeds);
+
+        assertThat(events).extracting(e -> e.sourceId()).containsExactly("a", "b");
+        assertThat(events).allMatch(e -> e.ok() && e.items().size() == 1);
+        assertThat(maxInFlight.get()).isEqualTo(2);
+    }
+
+    @Test
+    void hostOf_normalizes_host_and_tolerates_garbage() {
+        assertThat(RssFetchService.hostOf("https://RSS.Example.com/feed")).isEqualTo("rss.example.com");
+        assertThat(RssFetchService.hostOf("not a url")).isEqualTo("not a url");
+    }
+
+    @Test
+    void fetch_sends_validators_and_skips_not_modified_and_identical_feeds() throws Exception {
+        String rss = """
+                <?xml version=\"1.0\" encoding=\"UTF-8\"?>
+                <rss version=\"2.0\"><channel><title>T</title>
+                  <item><title>Item</title><guid>g</guid></item>
+                </channel></rss>
+                """;
+        server.enqueue(new MockResponse()
+                .setResponseCode(200)
+                .addHeader("ETag", "\"v1\"")
+                .addHeader("Last-Modified", "Tue, 03 Dec 2024 14:05:00 GMT")
+                .setBody(rss));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(rss));
+
+        FeedDto feed = new FeedDto("a", "A", server.url("/rss").toString());
+        RssFetchService svc = newService();
+
+        assertThat(svc.fetch("f1", List.of(feed))).hasSize(1);
+        assertThat(svc.fetch("f2", List.of(feed))).isEmpty();
+        assertThat(svc.fetch("f3", List.of(feed))).isEmpty();
+
+        server.takeRequest();
+        RecordedRequest conditional = server.takeRequest();
+        assertThat(conditional.getHeader("If-None-Match")).isEqualTo("\"v1\"");
+        assertThat(conditional.getHeader("If-Modified-Since")).isEqualTo("Tue, 03 Dec 2024 14:05:00 GMT");
+    }
+
+    @Test
+    void fetch_decodes_gzip_and_deflate_and_treats_a_regzipped_body_as_unchanged() throws Exception {
+        String rss = """
+                <?xml version=\"1.0\" encoding=\"UTF-8\"?>
+                <rss version=\"2.0\"><channel><title>T</title>
+                  <item><title>Zipped</title><guid>z</guid></item>
+                </channel></rss>
+                """;
+        byte[] gzip = gzip(rss);
+        byte[] regzipped = gzip.clone();
+        regzipped[4] ^= 0x5A; // another mtime in the gzip header, as from a server compressing per request
+        server.enqueue(new MockResponse().addHeader("Content-Encoding", "gzip").setBody(new Buffer().write(gzip)));
+        server.enqueue(new MockResponse().addHeader("Content-Encoding", "gzip").setBody(new Buffer().write(regzipped)));
+        server.enqueue(new MockResponse().addHeader("Content-Encoding", "deflate").setBody(new Buffer().write(deflate(rss, true))));
+        server.enqueue(new MockResponse().addHeader("Content-Encoding", "deflate").setBody(new Buffer().write(deflate(rss, false))));
+
+        FeedDto feed = new FeedDto("a", "A", server.url("/rss").toString());
+        RssFetchService svc = newService();
+
+        var first = svc.fetch("f1", List.of(feed));
+        assertThat(first).hasSize(1);
+        assertThat(first.get(0).items()).extracting(i -> i.title()).containsExactly("Zipped");
+        assertThat(svc.fetch("f2", List.of(feed))).isEmpty();
+        assertThat(server.takeRequest().getHeader("Accept-Encoding")).isEqualTo("gzip, deflate");
+
+        FeedDto other = new FeedDto("b", "B", server.url("/rss").toString() + "?b");
+        FeedDto raw = new FeedDto("c", "C", server.url("/rss").toString() + "?c");
+        assertThat(svc.fetch("f3", List.of(other)).get(0).items()).hasSize(1);
+        assertThat(svc.fetch("f4", List.of(raw)).get(0).items()).hasSize(1);
+    }
+
+    @Test
+    void fetch_stops_decoding_a_body_that_inflates_past_the_size_cap() throws Exception {
+        String rss = "<rss version=\"2.0\"><channel><title>" + "x".repeat(64 * 1024) + "</title></channel></rss>";
+        server.enqueue(new MockResponse().addHeader("Content-Encoding", "gzip").setBody(new Buffer().write(gzip(rss))));
+
+        FeedFetcher fetcher = new FeedFetcher(new FeedHttpClient(5, 5, 10, 8192), new ConditionalGetCache(), new FeedWatermarks(true, 60), new PayloadNormalizer(true, 300, 600), new WebSubSubscriptions("", 86400, 360));
+        RssFetchService svc = new RssFetchService(fetcher, newPlanner(), newBreakers(), 1, 1, 1, 60);
+        var events = svc.fetch("f1", List.of(new FeedDto("bomb", "Bomb", server.url("/rss").toString())));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).error()).contains("exceeds 8192 bytes");
+    }
+
+    private static byte[] gzip(String s) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(s.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(String s, boolean zlib) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (DeflaterOutputStream d = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, !zlib))) {
+            d.write(s.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    @Test
+    void fetch_reports_http_errors_as_error_batches() {
+        server.enqueue(new MockResponse().setResponseCode(503));
+
+        var events = newService().fetch("f1", List.of(new FeedDto("a", "A", server.url("/rss").toString())));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).ok()).isFalse();
+        assertThat(events.get(0).error()).contains("503");
+    }
+
+    @Test
+    void fetch_streams_batches_to_sink_and_counts_unchanged_feeds() {
+        String rss = """
+                <?xml version=\"1.0\" encoding=\"UTF-8\"?>
+                <rss version=\"2.0\"><channel><title>T</title>
+                  <item><title>Item</title><guid>g</guid></item>
+                </channel></rss>
+                """;
+        server.enqueue(new MockResponse().setResponseCode(200).addHeader("ETag", "\"v1\"").setBody(rss));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(rss));
+        server.enqueue(new MockResponse().setResponseCode(304));
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(rss));
+
+        List<FeedDto> feeds = List.of(
+                new FeedDto("a", "A", server.url("/a").toString()),
+                new FeedDto("b", "B", server.url("/b").toString())
+        );
+        RssFetchService svc = new RssFetchService(newFetcher(), newPlanner(), newBreakers(), 1, 1, 1, 60);
+        svc.fetch("f1", feeds);
+
+        List<String> delivered = new java.util.ArrayList<>();
+        var summary = svc.fetch("f2", feeds, b -> delivered.add(b.sourceId()));
+
+        assertThat(summary.feeds()).isEqualTo(2);
+        assertThat(summary.unchanged()).isEqualTo(2);
+        assertThat(summary.batches()).isZero();
+        assertThat(delivered).isEmpty();
+    }
+
+    @Test
+    void fetch_skips_feeds_with_open_circuit() {
+        server.enqueue(new MockResponse().setResponseCode(500));
+
+        FeedCircuitBreakers breakers = new FeedCircuitBreakers(1, 60, 3600);
+        RssFetchService svc = new RssFetchService(newFetcher(), newPlanner(), breakers, 1, 1, 1, 60);
+        List<FeedDto> feeds = List.of(new FeedDto("dead", "Dead", server.url("/rss").toString()));
+
+        assertThat(svc.fetch("f1", feeds)).hasSize(1);
+        assertThat(breakers.state("dead")).isEqualTo(FeedCircuitBreakers.State.OPEN);
+
+        List<String> delivered = new java.util.ArrayList<>();
+        var summary = svc.fetch("f2", feeds, b -> delivered.add(b.sourceId()));
+        assertThat(summary.skipped()).isEqualTo(1);
+        assertThat(delivered).isEmpty();
+        assertThat(server.getRequestCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fetch_rejects_bodies_over_the_size_cap() {
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("x".repeat(4096)));
+
+        FeedFetcher fetcher = new FeedFetcher(new FeedHttpClient(5, 5, 10, 1024), new ConditionalGetCache(), new FeedWatermarks(true, 60), new PayloadNormalizer(true, 300, 600), new WebSubSubscriptions("", 86400, 360));
+        RssFetchService svc = new RssFetchService(fetcher, newPlanner(), newBreakers(), 1, 1, 1, 60);
+        var events = svc.fetch("f1", List.of(new FeedDto("big", "Big", server.url("/rss").toString())));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).error()).contains("exceeds 1024 bytes");
+    }
+
+    @Test
+    void fetch_stops_at_the_run_deadline_and_reports_stuck_feeds() {
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("<rss/>").setHeadersDelay(5, TimeUnit.SECONDS));
+
+        FeedCircuitBreakers breakers = newBreakers();
+        RssFetchService svc = new RssFetchService(newFetcher(), newPlanner(), breakers, 1, 1, 1, 1);
+        List<FeedDto> feeds = List.of(
+                new FeedDto("slow", "Slow", server.url("/slow").toString()),
+                new FeedDto("queued", "Queued", server.url("/queued").toString())
+        );
+
+        List<String> delivered = new java.util.ArrayList<>();
+        long started = System.nanoTime();
+        var summary = svc.fetch("f1", feeds, b -> delivered.add(b.sourceId() + ": " + b.error()));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+
+        assertThat(elapsedMs).isLessThan(2500);
+        assertThat(summary.timedOut()).isEqualTo(2);
+        assertThat(summary.batches()).isEqualTo(1);
+        assertThat(delivered).singleElement().asString().startsWith("slow: timed out");
+        assertThat(breakers.snapshot()).extracting(FeedCircuitBreakers.BreakerView::feedId).containsExactly("slow");
+    }
+
+    @Test
+    void fetch_stops_reading_once_it_reaches_the_feeds_watermark() {
+        FeedWatermarks watermarks = new FeedWatermarks(true, 60);
+        FeedFetcher fetcher = new FeedFetcher(new FeedHttpClient(5, 5, 10, 5_000_000), new ConditionalGetCache(), watermarks, new PayloadNormalizer(true, 300, 600), new WebSubSubscriptions("", 86400, 360));
+        RssFetchService svc = new RssFetchService(fetcher, newPlanner(), newBreakers(), 1, 1, 1, 60);
+        FeedDto feed = new FeedDto("a", "A", server.url("/rss").toString());
+
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(dated("g4", "g3", "g2", "g1")));
+        var first = svc.fetch("f1", List.of(feed));
+        assertThat(first.get(0).items()).hasSize(4);
+        watermarks.advance(first.get(0));
+
+        // g5 is new; g4..g2 are a run of known items, so g1 and the broken tail are never parsed
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(
+                dated("g5", "g4", "g3", "g2", "g1").replace("</channel>", "<item><title>broken")));
+        var second = svc.fetch("f2", List.of(feed));
+
+        assertThat(second.get(0).ok()).isTrue();
+        assertThat(second.get(0).items()).extracting(i -> i.guid()).containsExactly("g5");
+    }
+
+    @Test
+    void fetch_reads_out_of_order_feeds_in_full() {
+        FeedWatermarks watermarks = new FeedWatermarks(true, 60);
+        FeedFetcher fetcher = new FeedFetcher(new FeedHttpClient(5, 5, 10, 5_000_000), new ConditionalGetCache(), watermarks, new PayloadNormalizer(true, 300, 600), new WebSubSubscriptions("", 86400, 360));
+        RssFetchService svc = new RssFetchService(fetcher, newPlanner(), newBreakers(), 1, 1, 1, 60);
+        FeedDto feed = new FeedDto("a", "A", server.url("/rss").toString());
+
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(dated("g2", "g4", "g1", "g3")));
+        watermarks.advance(svc.fetch("f1", List.of(feed)).get(0));
+        assertThat(watermarks.cutoff("a")).isNull();
+
+        server.enqueue(new MockResponse().setResponseCode(200).setBody(dated("g2", "g4", "g1", "g3", "g0")));
+        assertThat(svc.fetch("f2", List.of(feed)).get(0).items()).hasSize(5);
+    }
+
+    @Test
+    void fetch_keys_items_by_the_raw_title_so_normalizing_does_not_change_stored_keys() {
+        String rawTitle = "<b>Breaking</b>  news &amp; more";
+        server.enqueue(new MockResponse().setResponseCode(200).setBody("""
+                <?xml version="1.0"?><rss version="2.0"><channel><title>T</title>
+                  <item><title><![CDATA[%s]]></title><guid>g1</guid></item>
+                  <item><title>Plain</title><guid>g2</guid></item>
+                </channel></rss>
+                """.formatted(rawTitle)));
+
+        var items = newService().fetch("f", List.of(new FeedDto("a", "A", server.url("/rss").toString()))).get(0).items();
+
+        assertThat(items.get(0).title()).isEqualTo("Breaking news & more");
+        assertThat(ItemKey.binary(items.get(0))).isEqualTo(ItemKey.binary("a", "g1", null, rawTitle, ""));
+        assertThat(items.get(1).rawTitle()).as("unchanged titles are not sent twice").isNull();
+        assertThat(ItemKey.binary(items.get(1))).isEqualTo(ItemKey.binary("a", "g2", null, "Plain", ""));
+    }
+
+    /** An RSS feed with one item per guid; {@code gN} is published on day N of December 2024. */
+    private static String dated(String... guids) {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\"?><rss version=\"2.0\"><channel><title>T</title>");
+        for (String g : guids) {
+            sb.append("<item><title>").append(g).append("</title><guid>").append(g).append("</guid>")
+                    .append("<pubDate>0").append(g.substring(1)).append(" Dec 2024 10:00:00 GMT</pubDate></item>");
+        }
+        return sb.append("</channel></rss>").toString();
+    }
 }
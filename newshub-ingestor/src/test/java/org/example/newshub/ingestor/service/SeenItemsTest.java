@@ -0,0 +1,93 @@
+package org.example.newshub.ingestor.service;
+
+import org.example.newshub.common.kafka.NewsBatchEvent;
+import org.example.newshub.common.kafka.NewsItemPayload;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SeenItemsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void filter_drops_only_items_marked_seen() {
+        SeenItems seen = new SeenItems(true, 100, null);
+        NewsBatchEvent first = batch("src", 0, 3);
+
+        SeenItems.Fresh fresh = seen.filter(first);
+        assertThat(fresh.batch()).isSameAs(first);
+        assertThat(seen.filter(first).dropped()).isZero();
+
+        seen.markSeen("src", fresh.keys());
+        SeenItems.Fresh next = seen.filter(batch("src", 1, 4));
+        assertThat(next.dropped()).isEqualTo(2);
+        assertThat(next.batch().items()).extracting(NewsItemPayload::guid).containsExactly("g3");
+    }
+
+    @Test
+    void changed_items_count_as_new() {
+        SeenItems seen = new SeenItems(true, 100, null);
+        NewsBatchEvent original = batch("src", 0, 1);
+        seen.markSeen("src", seen.filter(original).keys());
+
+        NewsItemPayload it = original.items().get(0);
+        NewsItemPayload edited = new NewsItemPayload("Edited title", it.description(), it.link(), it.category(), it.pubDateRaw(),
+                it.publishedAt(), it.addedAt(), it.guid(), it.sourceId(), it.sourceName(), it.sourceUrl());
+        NewsBatchEvent batch = new NewsBatchEvent("f", Instant.now(), "src", "S", "https://s", List.of(edited), null);
+
+        assertThat(seen.filter(batch).dropped()).isZero();
+    }
+
+    @Test
+    void seen_set_is_bounded_per_feed_and_forgotten_for_unselected_feeds() {
+        SeenItems seen = new SeenItems(true, 5, null);
+        seen.markSeen("a", seen.filter(batch("a", 0, 8)).keys());
+        seen.markSeen("b", seen.filter(batch("b", 0, 2)).keys());
+        assertThat(seen.size("a")).isEqualTo(5);
+
+        seen.retain(List.of("a"));
+        assertThat(seen.size("b")).isZero();
+        assertThat(seen.filter(batch("a", 0, 8)).dropped()).isEqualTo(5);
+    }
+
+    @Test
+    void seen_items_survive_a_restart() {
+        Path file = dir.resolve("state/seen.bin");
+        SeenItems before = new SeenItems(true, 100, file.toString());
+        before.markSeen("src", before.filter(batch("src", 0, 4)).keys());
+        before.flush();
+
+        SeenItems after = new SeenItems(true, 100, file.toString());
+        after.load();
+        assertThat(after.size("src")).isEqualTo(4);
+        assertThat(after.filter(batch("src", 0, 4)).batch().items()).isEmpty();
+    }
+
+    @Test
+    void error_batches_and_disabled_filter_pass_through() {
+        NewsBatchEvent error = new NewsBatchEvent("f", Instant.now(), "src", "S", "https://s", List.of(), "HTTP 503");
+        assertThat(new SeenItems(true, 100, null).filter(error).batch()).isSameAs(error);
+
+        SeenItems off = new SeenItems(false, 100, null);
+        NewsBatchEvent batch = batch("src", 0, 2);
+        off.markSeen("src", off.filter(batch).keys());
+        assertThat(off.filter(batch).dropped()).isZero();
+    }
+
+    private static NewsBatchEvent batch(String sourceId, int from, int to) {
+        Instant now = Instant.parse("2025-12-18T12:00:00Z");
+        List<NewsItemPayload> items = IntStream.range(from, to)
+                .mapToObj(i -> new NewsItemPayload("t" + i, "d", "https://s/" + i, null, "", now, now,
+                        "g" + i, sourceId, "S", "https://s"))
+                .toList();
+        return new NewsBatchEvent("f", now, sourceId, "S", "https://s", items, null);
+    }
+}
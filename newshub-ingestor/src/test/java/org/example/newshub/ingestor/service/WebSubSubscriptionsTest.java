@@ -0,0 +1,201 @@
+package org.example.newshub.ingestor.service;
+
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.example.newshub.common.dto.FeedDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebSubSubscriptionsTest {
+
+    private final FeedPollPlannerTest.TestClock clock = new FeedPollPlannerTest.TestClock(Instant.parse("2025-12-18T12:00:00Z"));
+    private final FeedDto feed = new FeedDto("a", "A", "https://a.example/rss");
+
+    /** A local stand-in for the hub: records subscription requests and answers 202. */
+    private MockWebServer hub;
+    private WebSubSubscriptions subs;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        hub = new MockWebServer();
+        hub.start();
+        subs = new WebSubSubscriptions("https://ingestor.example/", 3600, 360, clock);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        hub.shutdown();
+    }
+
+    @Test
+    void subscribes_to_the_advertised_hub_and_only_trusts_signed_pushes() throws Exception {
+        Map<String, String> form = subscribe();
+
+        assertThat(form).containsEntry("hub.mode", "subscribe")
+                .containsEntry("hub.topic", "https://a.example/feed.xml")
+                .containsEntry("hub.lease_seconds", "3600");
+        assertThat(form.get("hub.callback")).startsWith("https://ingestor.example/websub/");
+        String token = token(form);
+        assertThat(subs.pushed("a")).isFalse();
+
+        assertThat(subs.verify(token, "subscribe", "https://a.example/wrong", "c1", 3600L)).isEmpty();
+        assertThat(subs.verify(token, "subscribe", "https://a.example/feed.xml", "c1", 3600L)).contains("c1");
+        assertThat(subs.pushed("a")).isTrue();
+
+        byte[] body = "<rss/>".getBytes(StandardCharsets.UTF_8);
+        assertThat(subs.accept(token, body, "sha256=" + hmac(form.get("hub.secret"), body))).contains(feed);
+        assertThat(subs.accept(token, body, "sha256=00ff")).isEmpty();
+        assertThat(subs.accept(token, body, null)).isEmpty();
+        assertThat(subs.accept("unknown", body, "sha256=" + hmac(form.get("hub.secret"), body))).isEmpty();
+    }
+
+    @Test
+    void pushed_feeds_still_get_a_safety_poll_and_expired_leases_fall_back_to_polling() throws Exception {
+        String token = token(subscribe());
+        subs.verify(token, "subscribe", "https://a.example/feed.xml", "c", 3600L);
+        assertThat(subs.pushed("a")).isTrue();
+
+        clock.advance(Duration.ofMinutes(61));
+        assertThat(subs.pushed("a")).as("lease ran out").isFalse();
+
+        subs.verify(token, "subscribe", "https://a.example/feed.xml", "c", 86400L);
+        assertThat(subs.pushed("a")).isTrue();
+        clock.advance(Duration.ofHours(6));
+        assertThat(subs.pushed("a")).as("safety poll due").isFalse();
+    }
+
+    @Test
+    void unchanged_polls_keep_a_pushed_feed_on_its_safety_poll() throws Exception {
+        FeedPollPlanner planner = new FeedPollPlanner(60, 3600, 300, 2, 0, subs, clock);
+        FeedFetcher fetcher = new FeedFetcher(new FeedHttpClient(5, 5, 10, 5_000_000), new ConditionalGetCache(),
+                new FeedWatermarks(true, 60), new PayloadNormalizer(true, 300, 600), subs);
+        String token = token(subscribe());
+        subs.verify(token, "subscribe", "https://a.example/feed.xml", "c", 86400L);
+        planner.due(List.of(feed));
+
+        clock.advance(Duration.ofHours(5));
+        hub.enqueue(new MockResponse().setResponseCode(304));
+        FeedFetch fetch = fetcher.fetch("f", clock.instant(), new FeedDto("a", "A", hub.url("/rss").toString()));
+        assertThat(fetch.unchanged()).isTrue();
+        planner.record(fetch);
+        assertThat(planner.nextPollAt("a")).contains(clock.instant().plus(Duration.ofHours(6)));
+
+        clock.advance(Duration.ofHours(2));
+        assertThat(subs.pushed("a")).as("the 304 counts as the safety poll").isTrue();
+        assertThat(planner.due(List.of(feed))).isEmpty();
+    }
+
+    @Test
+    void a_denial_without_a_challenge_is_acknowledged_and_retried_later() throws Exception {
+        Map<String, String> form = subscribe();
+        String token = token(form);
+
+        assertThat(subs.verify(token, "denied", "https://a.example/feed.xml", null, null)).contains("");
+        assertThat(subs.pushed("a")).isFalse();
+
+        subs.renew();
+        assertThat(hub.takeRequest(200, TimeUnit.MILLISECONDS)).as("retried only after a while").isNull();
+        clock.advance(Duration.ofHours(1));
+        hub.enqueue(new MockResponse().setResponseCode(202));
+        subs.renew();
+        assertThat(form(hub.takeRequest(2, TimeUnit.SECONDS))).containsEntry("hub.mode", "subscribe")
+                .containsEntry("hub.callback", form.get("hub.callback"));
+    }
+
+    @Test
+    void a_subscription_the_hub_never_verifies_is_requested_again() throws Exception {
+        Map<String, String> form = subscribe();
+
+        clock.advance(Duration.ofMinutes(20));
+        subs.renew();
+        assertThat(hub.takeRequest(200, TimeUnit.MILLISECONDS)).as("still waiting for the hub").isNull();
+
+        clock.advance(Duration.ofMinutes(10));
+        hub.enqueue(new MockResponse().setResponseCode(202));
+        subs.renew();
+        assertThat(form(hub.takeRequest(2, TimeUnit.SECONDS))).containsEntry("hub.mode", "subscribe")
+                .containsEntry("hub.topic", "https://a.example/feed.xml");
+
+        assertThat(subs.verify(token(form), "subscribe", "https://a.example/feed.xml", "c", 3600L)).contains("c");
+        assertThat(subs.pushed("a")).isTrue();
+    }
+
+    @Test
+    void unselected_feeds_are_unsubscribed_at_the_hub() throws Exception {
+        String token = token(subscribe());
+        subs.verify(token, "subscribe", "https://a.example/feed.xml", "c", 3600L);
+
+        hub.enqueue(new MockResponse().setResponseCode(202));
+        subs.retain(List.of("other"));
+
+        RecordedRequest req = hub.takeRequest(2, TimeUnit.SECONDS);
+        assertThat(form(req)).containsEntry("hub.mode", "unsubscribe");
+        assertThat(subs.pushed("a")).isFalse();
+        assertThat(subs.verify(token, "unsubscribe", "https://a.example/feed.xml", "bye", null)).contains("bye");
+        assertThat(subs.knows(token)).isFalse();
+    }
+
+    @Test
+    void finds_hub_and_self_links_in_rss_and_atom() {
+        String rss = """
+                <rss version="2.0" xmlns:atom="http://www.w3.org/2005/Atom"><channel>
+                  <atom:link rel="self" type="application/rss+xml" href="https://a.example/feed.xml"/>
+                  <atom:link href='https://hub.example/' rel='hub' />
+                """;
+        String atom = "<feed><link rel=\"alternate\" href=\"https://a.example/\"/><link rel=\"hub\" href=\"https://hub.example/\"/></feed>";
+
+        assertThat(WebSubSubscriptions.links(rss.getBytes(StandardCharsets.UTF_8)))
+                .isEqualTo(new WebSubSubscriptions.Links("https://hub.example/", "https://a.example/feed.xml"));
+        assertThat(WebSubSubscriptions.links(atom.getBytes(StandardCharsets.UTF_8)))
+                .isEqualTo(new WebSubSubscriptions.Links("https://hub.example/", null));
+        assertThat(WebSubSubscriptions.links("<rss/>".getBytes(StandardCharsets.UTF_8)).hub()).isNull();
+    }
+
+    /** Polls a feed that names the stand-in hub and returns the subscription request it received. */
+    private Map<String, String> subscribe() throws Exception {
+        hub.enqueue(new MockResponse().setResponseCode(202));
+        String body = "<rss><channel><atom:link rel=\"hub\" href=\"" + hub.url("/hub") + "\"/>"
+                + "<atom:link rel=\"self\" href=\"https://a.example/feed.xml\"/></channel></rss>";
+        subs.polled(feed, body.getBytes(StandardCharsets.UTF_8));
+
+        RecordedRequest req = hub.takeRequest(2, TimeUnit.SECONDS);
+        assertThat(req).isNotNull();
+        assertThat(req.getMethod()).isEqualTo("POST");
+        assertThat(req.getHeader("Content-Type")).startsWith("application/x-www-form-urlencoded");
+        return form(req);
+    }
+
+    private static Map<String, String> form(RecordedRequest req) {
+        Map<String, String> out = new HashMap<>();
+        for (String pair : req.getBody().readUtf8().split("&")) {
+            int eq = pair.indexOf('=');
+            out.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return out;
+    }
+
+    private static String token(Map<String, String> form) {
+        String callback = form.get("hub.callback");
+        return callback.substring(callback.lastIndexOf('/') + 1);
+    }
+
+    private static String hmac(String secret, byte[] body) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(body));
+    }
+}
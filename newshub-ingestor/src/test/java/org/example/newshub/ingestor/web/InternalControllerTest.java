@@ -1,6 +1,8 @@
 package org.example.newshub.ingestor.web;
 
-import org.example.newshub.ingestor.service.IngestorService;
+import org.example.newshub.ingestor.service.FeedCircuitBreakers;
+import org.example.newshub.ingestor.service.RefreshJob;
+import org.example.newshub.ingestor.service.RefreshJobs;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -9,9 +11,12 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -22,20 +27,57 @@ class InternalControllerTest {
     MockMvc mvc;
 
     @MockBean
-    IngestorService service;
+    RefreshJobs jobs;
 
-    @Test
-    void refresh_returns_json_summary() throws Exception {
-        var run = new IngestorService.RefreshRun(
-                "fetch-1",
-                3,
-                "src-bad: boom"
-        );
+    @MockBean
+    FeedCircuitBreakers breakers;
 
-        when(service.refreshOnce()).thenReturn(run);
+    @Test
+    void refresh_returns_accepted_with_job_location() throws Exception {
+        when(jobs.submit()).thenReturn(Optional.of(new RefreshJobs.Submission(new RefreshJob("fetch-1"), false)));
 
         mvc.perform(post("/internal/refresh"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/internal/refresh/fetch-1"))
                 .andExpect(jsonPath("$.fetchId").value("fetch-1"))
-                .andExpect(jsonPath("$.batches").value(3));
-                }
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+    }
+
+    @Test
+    void refresh_joining_a_running_job_returns_ok_with_that_job() throws Exception {
+        when(jobs.submit()).thenReturn(Optional.of(new RefreshJobs.Submission(new RefreshJob("fetch-1"), true)));
+
+        mvc.perform(post("/internal/refresh"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fetchId").value("fetch-1"));
+    }
+
+    @Test
+    void refresh_is_refused_when_too_many_jobs_run() throws Exception {
+        when(jobs.submit()).thenReturn(Optional.empty());
+
+        mvc.perform(post("/internal/refresh"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void refresh_status_reports_unknown_jobs_as_not_found() throws Exception {
+        when(jobs.find("nope")).thenReturn(Optional.empty());
+
+        mvc.perform(get("/internal/refresh/nope"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void breakers_lists_circuit_state_per_feed() throws Exception {
+        when(breakers.snapshot()).thenReturn(List.of(new FeedCircuitBreakers.BreakerView(
+                "tut", FeedCircuitBreakers.State.OPEN, 4,
+                Instant.parse("2025-12-18T12:00:00Z"), Instant.parse("2025-12-18T12:02:00Z"), "HTTP 404")));
+
+        mvc.perform(get("/internal/breakers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].feedId").value("tut"))
+                .andExpect(jsonPath("$[0].state").value("OPEN"))
+                .andExpect(jsonPath("$[0].consecutiveFailures").value(4));
+    }
 }
@@ -0,0 +1,78 @@
+package org.example.newshub.ingestor.web;
+
+import org.example.newshub.common.dto.FeedDto;
+import org.example.newshub.common.kafka.NewsBatchEvent;
+import org.example.newshub.ingestor.service.FeedFetcher;
+import org.example.newshub.ingestor.service.IngestorService;
+import org.example.newshub.ingestor.service.WebSubSubscriptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = WebSubController.class)
+class WebSubControllerTest {
+
+    @Autowired
+    MockMvc mvc;
+
+    @MockBean
+    WebSubSubscriptions subscriptions;
+
+    @MockBean
+    FeedFetcher fetcher;
+
+    @MockBean
+    IngestorService ingestor;
+
+    @Test
+    void verification_echoes_the_challenge_or_refuses() throws Exception {
+        when(subscriptions.verify("t1", "subscribe", "https://a/rss", "abc", 600L)).thenReturn(Optional.of("abc"));
+
+        mvc.perform(get("/websub/t1").param("hub.mode", "subscribe").param("hub.topic", "https://a/rss")
+                        .param("hub.challenge", "abc").param("hub.lease_seconds", "600"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("abc"));
+        mvc.perform(get("/websub/t2").param("hub.mode", "subscribe").param("hub.topic", "https://a/rss")
+                        .param("hub.challenge", "abc"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void signed_pushes_are_parsed_and_published_like_a_poll() throws Exception {
+        FeedDto feed = new FeedDto("a", "A", "https://a/rss");
+        byte[] body = "<rss/>".getBytes();
+        NewsBatchEvent batch = new NewsBatchEvent("f", Instant.now(), "a", "A", "https://a/rss", List.of(), null);
+        when(subscriptions.knows("t1")).thenReturn(true);
+        when(subscriptions.accept("t1", body, "sha256=ab")).thenReturn(Optional.of(feed));
+        when(fetcher.parsePushed(anyString(), any(), eq(feed), eq(body))).thenReturn(batch);
+
+        mvc.perform(post("/websub/t1").header("X-Hub-Signature", "sha256=ab").content(body))
+                .andExpect(status().isAccepted());
+
+        verify(ingestor).publishPushed(batch);
+    }
+
+    @Test
+    void unsigned_pushes_are_acknowledged_but_dropped_and_unknown_tokens_get_404() throws Exception {
+        when(subscriptions.knows("t1")).thenReturn(true);
+        when(subscriptions.accept(eq("t1"), any(), isNull())).thenReturn(Optional.empty());
+
+        mvc.perform(post("/websub/t1").content("<rss/>")).andExpect(status().isAccepted());
+        mvc.perform(post("/websub/gone").content("<rss/>")).andExpect(status().isNotFound());
+
+        verifyNoInteractions(ingestor);
+    }
+}